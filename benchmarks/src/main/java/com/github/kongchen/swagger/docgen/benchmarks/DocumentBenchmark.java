@@ -0,0 +1,104 @@
+package com.github.kongchen.swagger.docgen.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.MojoFailureException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.kongchen.swagger.docgen.GenerateException;
+import com.github.kongchen.swagger.docgen.Utils;
+import com.github.kongchen.swagger.docgen.mavenplugin.ApiSource;
+import com.github.kongchen.swagger.docgen.mavenplugin.MavenDocumentSource;
+import com.github.kongchen.swagger.docgen.reader.JaxrsReader;
+
+import io.swagger.models.Info;
+import io.swagger.models.Model;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+import io.swagger.models.Tag;
+
+/**
+ * Sorts and writes the document read from a synthetic JAX-RS resource tree.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class DocumentBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int resources;
+
+    @Param({"json", "json,yaml"})
+    public String outputFormats;
+
+    private SyntheticResources syntheticResources;
+    private Swagger swagger;
+    private File outputDirectory;
+    private PreparedDocumentSource documentSource;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        syntheticResources = new SyntheticResources(resources);
+        JaxrsReader reader = new JaxrsReader(new Swagger(), new SilentLog());
+        reader.setSwaggerDefinitionClasses(Collections.<Class<?>>emptySet());
+        swagger = reader.read(syntheticResources.getJaxrsResources());
+        swagger.setInfo(new Info().title("Benchmark").version("v1"));
+
+        outputDirectory = new File(syntheticResources.getDirectory(), "output");
+        ApiSource apiSource = new ApiSource();
+        apiSource.setInfo(swagger.getInfo());
+        apiSource.setSwaggerDirectory(outputDirectory.getPath());
+        documentSource = new PreparedDocumentSource(apiSource, swagger);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        FileUtils.deleteDirectory(outputDirectory);
+        syntheticResources.delete();
+    }
+
+    /**
+     * Sorts a copy of the unsorted containers of the document, the operations themselves are shared.
+     */
+    @Benchmark
+    public Swagger sortSwagger() throws GenerateException {
+        Swagger copy = new Swagger();
+        copy.setPaths(new LinkedHashMap<String, Path>(swagger.getPaths()));
+        copy.setDefinitions(new LinkedHashMap<String, Model>(swagger.getDefinitions()));
+        copy.setTags(new ArrayList<Tag>(swagger.getTags()));
+        Utils.sortSwagger(copy);
+        return copy;
+    }
+
+    @Benchmark
+    public void toSwaggerDocuments() throws GenerateException {
+        documentSource.toSwaggerDocuments(null, outputFormats, "UTF-8");
+    }
+
+    static class PreparedDocumentSource extends MavenDocumentSource {
+        PreparedDocumentSource(ApiSource apiSource, Swagger swagger) throws MojoFailureException {
+            super(apiSource, new SilentLog(), "UTF-8");
+            this.swagger = swagger;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.github.kongchen.swagger.docgen.benchmarks;
+
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.kongchen.swagger.docgen.reader.ModelModifier;
+import com.wordnik.sample.model.Order;
+import com.wordnik.sample.model.Pet;
+import com.wordnik.sample.model.User;
+
+import io.swagger.converter.ModelConverter;
+import io.swagger.converter.ModelConverterContextImpl;
+import io.swagger.models.Model;
+import io.swagger.util.Json;
+
+/**
+ * Resolves the sample models through {@link ModelModifier}, with and without model substitutes.
+ * A new converter context is used for every invocation, so nothing is cached between invocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ModelResolutionBenchmark {
+
+    /**
+     * JDK classes none of the sample models refers to.
+     */
+    private static final String[] UNUSED_CLASSES = {
+            "java.util.concurrent.atomic.AtomicLong", "java.util.concurrent.atomic.AtomicInteger",
+            "java.util.concurrent.atomic.AtomicBoolean", "java.util.concurrent.atomic.AtomicReference",
+            "java.util.concurrent.atomic.AtomicLongArray", "java.util.concurrent.atomic.AtomicIntegerArray",
+            "java.util.concurrent.locks.ReentrantLock", "java.util.concurrent.locks.ReentrantReadWriteLock",
+            "java.util.concurrent.CountDownLatch", "java.util.concurrent.CyclicBarrier",
+            "java.util.concurrent.Semaphore", "java.util.concurrent.Exchanger",
+            "java.util.concurrent.FutureTask", "java.util.concurrent.ThreadPoolExecutor",
+            "java.util.concurrent.ScheduledThreadPoolExecutor", "java.util.concurrent.ConcurrentLinkedQueue",
+            "java.util.concurrent.LinkedBlockingQueue", "java.util.concurrent.ArrayBlockingQueue",
+            "java.util.concurrent.PriorityBlockingQueue", "java.util.concurrent.DelayQueue",
+            "java.util.concurrent.SynchronousQueue", "java.util.concurrent.CopyOnWriteArrayList",
+            "java.util.concurrent.CopyOnWriteArraySet", "java.util.concurrent.ConcurrentSkipListMap",
+            "java.util.concurrent.ConcurrentSkipListSet", "java.util.zip.CRC32",
+            "java.util.zip.Adler32", "java.util.zip.Deflater",
+            "java.util.zip.Inflater", "java.util.zip.ZipEntry",
+            "java.util.jar.Manifest", "java.util.jar.Attributes",
+            "java.util.BitSet", "java.util.Random",
+            "java.util.Stack", "java.util.Vector",
+            "java.util.Hashtable", "java.util.WeakHashMap",
+            "java.util.IdentityHashMap", "java.util.PriorityQueue",
+            "java.util.ArrayDeque", "java.util.Timer",
+            "java.util.StringTokenizer", "java.util.Observable",
+            "java.text.DecimalFormat", "java.text.SimpleDateFormat",
+            "java.text.MessageFormat", "java.text.ChoiceFormat",
+            "java.text.Collator", "java.text.BreakIterator"
+    };
+
+    @Param({"0", "10", "100"})
+    public int substitutes;
+
+    private List<ModelConverter> converters;
+
+    @Setup
+    public void setUp() throws Exception {
+        ModelModifier modelModifier = new ModelModifier(Json.mapper());
+        // distinct rules which never match, as most rules of a large substitution file do for a given type:
+        // one class rule and one package rule in turn
+        for (int i = 0; i < substitutes; i++) {
+            if (i % 2 == 0) {
+                modelModifier.addModelSubstitute(UNUSED_CLASSES[i / 2], "java.lang.Long");
+            } else {
+                modelModifier.addModelSubstitute("com.wordnik.sample.unused" + i + ".*", "java.lang.Long");
+            }
+        }
+        converters = new ArrayList<ModelConverter>();
+        converters.add(modelModifier);
+    }
+
+    private Model resolve(Type type) {
+        return new ModelConverterContextImpl(converters).resolve(type);
+    }
+
+    @Benchmark
+    public Model resolvePet() {
+        return resolve(Pet.class);
+    }
+
+    @Benchmark
+    public Model resolveOrder() {
+        return resolve(Order.class);
+    }
+
+    @Benchmark
+    public Model resolveUser() {
+        return resolve(User.class);
+    }
+}
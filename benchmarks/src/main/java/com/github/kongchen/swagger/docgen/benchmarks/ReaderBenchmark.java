@@ -0,0 +1,65 @@
+package com.github.kongchen.swagger.docgen.benchmarks;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.github.kongchen.swagger.docgen.GenerateException;
+import com.github.kongchen.swagger.docgen.reader.JaxrsReader;
+import com.github.kongchen.swagger.docgen.reader.SpringMvcApiReader;
+
+import io.swagger.models.Swagger;
+
+/**
+ * Reads synthetic JAX-RS and Spring MVC resource trees with a new reader for every invocation, as one
+ * generation does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ReaderBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int resources;
+
+    private SyntheticResources syntheticResources;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        syntheticResources = new SyntheticResources(resources);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        syntheticResources.delete();
+    }
+
+    @Benchmark
+    public Swagger jaxrsRead() {
+        JaxrsReader reader = new JaxrsReader(new Swagger(), new SilentLog());
+        reader.setSwaggerDefinitionClasses(Collections.<Class<?>>emptySet());
+        return reader.read(syntheticResources.getJaxrsResources());
+    }
+
+    @Benchmark
+    public Swagger springMvcRead() throws GenerateException {
+        SpringMvcApiReader reader = new SpringMvcApiReader(new Swagger(), new SilentLog());
+        return reader.read(syntheticResources.getSpringMvcResources());
+    }
+}
@@ -0,0 +1,43 @@
+package com.github.kongchen.swagger.docgen.benchmarks;
+
+import org.apache.maven.plugin.logging.SystemStreamLog;
+
+/**
+ * Keeps the info and warning messages of the plugin out of the benchmark output, errors are still printed.
+ */
+public class SilentLog extends SystemStreamLog {
+
+    @Override
+    public void info(CharSequence content) {
+    }
+
+    @Override
+    public void info(CharSequence content, Throwable error) {
+    }
+
+    @Override
+    public void info(Throwable error) {
+    }
+
+    @Override
+    public void warn(CharSequence content) {
+    }
+
+    @Override
+    public void warn(CharSequence content, Throwable error) {
+    }
+
+    @Override
+    public void warn(Throwable error) {
+    }
+
+    @Override
+    public boolean isInfoEnabled() {
+        return false;
+    }
+
+    @Override
+    public boolean isWarnEnabled() {
+        return false;
+    }
+}
@@ -0,0 +1,138 @@
+package com.github.kongchen.swagger.docgen.benchmarks;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+
+import org.apache.commons.io.FileUtils;
+
+/**
+ * Synthetic resource trees built from the sample resources of the plugin tests.
+ * <p>
+ * Every synthetic resource is a subclass of one of the sample resources, mounted on its own path and
+ * tagged with its own tag, so a tree of n resources holds n times the operations of a sample resource.
+ * The resources are compiled on the fly, which requires a JDK.
+ */
+public class SyntheticResources {
+    private static final String[] JAXRS_SAMPLES = {
+            "com.wordnik.jaxrs.PetResource", "com.wordnik.jaxrs.PetStoreResource", "com.wordnik.jaxrs.UserResource"
+    };
+    private static final String[] SPRINGMVC_SAMPLES = {
+            "com.wordnik.springmvc.PetResource", "com.wordnik.springmvc.PetStoreResource", "com.wordnik.springmvc.UserResource"
+    };
+
+    public static final String JAXRS_PACKAGE = "synthetic.jaxrs";
+    public static final String SPRINGMVC_PACKAGE = "synthetic.springmvc";
+
+    private final File dir;
+    private final ClassLoader classLoader;
+    private final Set<Class<?>> jaxrsResources = new LinkedHashSet<Class<?>>();
+    private final Set<Class<?>> springMvcResources = new LinkedHashSet<Class<?>>();
+
+    /**
+     * Generates and compiles a JAX-RS and a Spring MVC tree of the given size.
+     *
+     * @param count number of resources of each tree
+     */
+    public SyntheticResources(int count) throws IOException, ClassNotFoundException {
+        dir = File.createTempFile("synthetic-resources", "");
+        FileUtils.forceDelete(dir);
+        FileUtils.forceMkdir(dir);
+
+        List<String> sources = new ArrayList<String>();
+        List<String> jaxrsNames = new ArrayList<String>();
+        List<String> springMvcNames = new ArrayList<String>();
+        for (int i = 0; i < count; i++) {
+            String sample = JAXRS_SAMPLES[i % JAXRS_SAMPLES.length];
+            String name = JAXRS_PACKAGE + "." + simpleName(sample) + i;
+            sources.add(write(name, "@javax.ws.rs.Path(\"/" + i + "/" + simpleName(sample) + "\")\n"
+                    + "@io.swagger.annotations.Api(value = \"/" + i + "\", tags = \"resource" + i + "\")\n"
+                    + "public class " + simpleName(name) + " extends " + sample + " {\n}\n"));
+            jaxrsNames.add(name);
+
+            sample = SPRINGMVC_SAMPLES[i % SPRINGMVC_SAMPLES.length];
+            name = SPRINGMVC_PACKAGE + "." + simpleName(sample) + i;
+            sources.add(write(name, "@org.springframework.web.bind.annotation.RequestMapping(\"/" + i + "/" + simpleName(sample) + "\")\n"
+                    + "@io.swagger.annotations.Api(value = \"/" + i + "\", tags = \"resource" + i + "\")\n"
+                    + "public class " + simpleName(name) + " extends " + sample + " {\n}\n"));
+            springMvcNames.add(name);
+        }
+        compile(sources);
+
+        classLoader = new URLClassLoader(new URL[]{dir.toURI().toURL()}, SyntheticResources.class.getClassLoader());
+        for (String name : jaxrsNames) {
+            jaxrsResources.add(Class.forName(name, true, classLoader));
+        }
+        for (String name : springMvcNames) {
+            springMvcResources.add(Class.forName(name, true, classLoader));
+        }
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private String write(String className, String body) throws IOException {
+        int lastDot = className.lastIndexOf('.');
+        File file = new File(dir, className.replace('.', File.separatorChar) + ".java");
+        FileUtils.forceMkdir(file.getParentFile());
+        Writer out = new OutputStreamWriter(new FileOutputStream(file), Charset.forName("UTF-8"));
+        try {
+            out.write("package " + className.substring(0, lastDot) + ";\n\n" + body);
+        } finally {
+            out.close();
+        }
+        return file.getPath();
+    }
+
+    private void compile(List<String> sources) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalStateException("The synthetic resources can only be compiled with a JDK");
+        }
+        List<String> arguments = new ArrayList<String>(Arrays.asList(
+                "-nowarn", "-encoding", "UTF-8",
+                "-classpath", System.getProperty("java.class.path"),
+                "-d", dir.getPath()));
+        arguments.addAll(sources);
+        if (compiler.run(null, null, null, arguments.toArray(new String[arguments.size()])) != 0) {
+            throw new IOException("Could not compile the synthetic resources in " + dir);
+        }
+    }
+
+    public ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    public File getDirectory() {
+        return dir;
+    }
+
+    public Set<Class<?>> getJaxrsResources() {
+        return jaxrsResources;
+    }
+
+    public Set<Class<?>> getSpringMvcResources() {
+        return springMvcResources;
+    }
+
+    /**
+     * Deletes the generated sources and classes.
+     */
+    public void delete() throws IOException {
+        FileUtils.deleteDirectory(dir);
+    }
+}
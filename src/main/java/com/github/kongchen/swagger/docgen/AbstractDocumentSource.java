@@ -7,23 +7,19 @@ import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationModule;
 import com.fasterxml.jackson.module.jaxb.JaxbAnnotationModule.Priority;
-import com.github.jknack.handlebars.Handlebars;
-import com.github.jknack.handlebars.Helper;
-import com.github.jknack.handlebars.Options;
 import com.github.jknack.handlebars.Template;
-import com.github.jknack.handlebars.helper.StringHelpers;
 import com.github.jknack.handlebars.io.TemplateLoader;
 import com.github.kongchen.swagger.docgen.mavenplugin.ApiSource;
 import com.github.kongchen.swagger.docgen.mavenplugin.SecurityDefinition;
 import com.github.kongchen.swagger.docgen.reader.AbstractReader;
 import com.github.kongchen.swagger.docgen.reader.ClassSwaggerReader;
 import com.github.kongchen.swagger.docgen.reader.ModelModifier;
+import com.github.kongchen.swagger.docgen.reader.PersistentModelCache;
 import com.google.common.collect.Sets;
 
 import io.swagger.annotations.Api;
 import io.swagger.config.FilterFactory;
 import io.swagger.converter.ModelConverter;
-import io.swagger.converter.ModelConverters;
 import io.swagger.core.filter.SpecFilter;
 import io.swagger.core.filter.SwaggerSpecFilter;
 import io.swagger.jaxrs.ext.SwaggerExtension;
@@ -42,6 +38,7 @@ import org.apache.maven.plugin.logging.Log;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.io.*;
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Type;
 import java.net.MalformedURLException;
@@ -50,10 +47,16 @@ import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author chekong 05/13/2013
@@ -72,6 +75,10 @@ public abstract class AbstractDocumentSource {
     private ObjectMapper mapper = new ObjectMapper();
     private boolean isSorted = false;
     protected String encoding = "UTF-8";
+    private GenerationContext generationContext = new GenerationContext();
+    private int classCount;
+    private PersistentModelCache persistentModelCache;
+    private CompiledTemplateCache templateCache = new CompiledTemplateCache();
 
     public AbstractDocumentSource(Log log, ApiSource apiSource) throws MojoFailureException {
         LOG = log;
@@ -106,17 +113,74 @@ public abstract class AbstractDocumentSource {
         this.apiSource = apiSource;
     }
 
+    public Swagger getSwagger() {
+        return swagger;
+    }
+
+    /**
+     * @return the number of classes read by the last {@link #loadDocuments()}
+     */
+    public int getClassCount() {
+        return classCount;
+    }
+
+    public GenerationContext getGenerationContext() {
+        return generationContext;
+    }
+
+    /**
+     * Sets the context through which the swagger-core global state is changed. The load phases
+     * ({@link #loadModelModifier()}, {@link #loadModelConverters()} and {@link #loadDocuments()}) must run
+     * between {@link GenerationContext#enter()} and {@link GenerationContext#exit()} of that context.
+     *
+     * @param generationContext context of this document source
+     */
+    public void setGenerationContext(GenerationContext generationContext) {
+        this.generationContext = generationContext;
+    }
+
+    public CompiledTemplateCache getTemplateCache() {
+        return templateCache;
+    }
+
+    /**
+     * @param templateCache cache of the compiled templates, shared with the other document sources of an
+     *                      execution
+     */
+    public void setTemplateCache(CompiledTemplateCache templateCache) {
+        this.templateCache = templateCache;
+    }
+
+    public PersistentModelCache getPersistentModelCache() {
+        return persistentModelCache;
+    }
+
+    /**
+     * @param persistentModelCache cache the readers keep the resolved models in between builds,
+     *                             <code>null</code> for none
+     */
+    public void setPersistentModelCache(PersistentModelCache persistentModelCache) {
+        this.persistentModelCache = persistentModelCache;
+    }
+
     public void loadDocuments() throws GenerateException {
         if (apiSource.getSwaggerInternalFilter() != null) {
             try {
                 LOG.info("Setting filter configuration: " + apiSource.getSwaggerInternalFilter());
-                FilterFactory.setFilter((SwaggerSpecFilter) Class.forName(apiSource.getSwaggerInternalFilter()).newInstance());
+                generationContext.setFilter((SwaggerSpecFilter) Utils.loadClass(apiSource.getSwaggerInternalFilter()).newInstance());
             } catch (Exception e) {
                 throw new GenerateException("Cannot load: " + apiSource.getSwaggerInternalFilter(), e);
             }
         }
         
         ClassSwaggerReader reader = resolveApiReader();
+        if (reader instanceof AbstractReader) {
+            ((AbstractReader) reader).setParallelism(apiSource.getReaderParallelism());
+            ((AbstractReader) reader).setPersistentModelCache(persistentModelCache);
+            if (apiSource.getParameterAnnotations() != null) {
+                ((AbstractReader) reader).addParameterAnnotations(resolveParameterAnnotations());
+            }
+        }
         
         // the reader may modify the extensions list, therefore add the additional swagger extensions
         // after the instantiation of the reader
@@ -125,7 +189,9 @@ public abstract class AbstractDocumentSource {
         	extensions.addAll(resolveSwaggerExtensions());
         }
         
-        swagger = reader.read(getValidClasses());
+        Set<Class<?>> validClasses = getValidClasses();
+        classCount = validClasses.size();
+        swagger = reader.read(validClasses);
 
         if (apiSource.getSecurityDefinitions() != null) {
             for (SecurityDefinition sd : apiSource.getSecurityDefinitions()) {
@@ -185,37 +251,150 @@ public abstract class AbstractDocumentSource {
         if (fileName == null || "".equals(fileName.trim())) {
             fileName = "swagger";
         }
+        Map<File, ObjectWriter> documents = new LinkedHashMap<File, ObjectWriter>();
+        if (outputFormats != null) {
+            for (String format : outputFormats.split(",")) {
+                Output output;
+                try {
+                    output = Output.valueOf(format.toLowerCase());
+                } catch (Exception e) {
+                    throw new GenerateException(String.format("Declared output format [%s] is not supported.", format));
+                }
+                switch (output) {
+                    case json:
+                        documents.put(new File(dir, fileName + ".json"), mapper.writer(new DefaultPrettyPrinter()));
+                        break;
+                    case yaml:
+                        documents.put(new File(dir, fileName + ".yaml"), Yaml.pretty());
+                        break;
+                }
+            }
+        } else {
+            // Default to json
+            documents.put(new File(dir, fileName + ".json"), mapper.writer(new DefaultPrettyPrinter()));
+        }
+        writeDocuments(documents, encoding);
+    }
+
+    /**
+     * Writes the documents of every output format. The swagger model is sorted and no longer modified at
+     * this point, so several formats are serialized from it concurrently.
+     */
+    private void writeDocuments(Map<File, ObjectWriter> documents, final String encoding) throws GenerateException {
+        if (documents.size() < 2) {
+            for (Map.Entry<File, ObjectWriter> document : documents.entrySet()) {
+                writeTimedDocument(document.getValue(), document.getKey(), encoding);
+            }
+            return;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(documents.size());
         try {
-            if (outputFormats != null) {
-                for (String format : outputFormats.split(",")) {
-                    try {
-                        Output output = Output.valueOf(format.toLowerCase());
-                        switch (output) {
-                            case json:
-                                ObjectWriter jsonWriter = mapper.writer(new DefaultPrettyPrinter());
-                                FileUtils.write(new File(dir, fileName + ".json"), jsonWriter.writeValueAsString(swagger), encoding);
-                                break;
-                            case yaml:
-                                FileUtils.write(new File(dir, fileName + ".yaml"), Yaml.pretty().writeValueAsString(swagger), encoding);
-                                break;
-                        }
-                    } catch (Exception e) {
-                        throw new GenerateException(String.format("Declared output format [%s] is not supported.", format));
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (final Map.Entry<File, ObjectWriter> document : documents.entrySet()) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws GenerateException {
+                        writeTimedDocument(document.getValue(), document.getKey(), encoding);
+                        return null;
                     }
-                }
-            } else {
-                // Default to json
-                ObjectWriter jsonWriter = mapper.writer(new DefaultPrettyPrinter());
-                FileUtils.write(new File(dir, fileName + ".json"), jsonWriter.writeValueAsString(swagger), encoding);
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerateException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof GenerateException) {
+                throw (GenerateException) e.getCause();
             }
+            throw new GenerateException(e.getCause().getMessage(), e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private void writeTimedDocument(ObjectWriter writer, File file, String encoding) throws GenerateException {
+        long start = System.currentTimeMillis();
+        boolean changed;
+        try {
+            changed = writeDocument(writer, file, encoding);
         } catch (IOException e) {
             throw new GenerateException(e);
         }
+        if (changed) {
+            LOG.info(String.format("Wrote %s in %d ms", file.getName(), System.currentTimeMillis() - start));
+        } else {
+            LOG.info(String.format("%s is up to date", file.getName()));
+        }
+    }
+
+    /**
+     * Serializes the swagger document straight into a temporary file, without building it in memory
+     * first, then moves it over the file if their contents differ.
+     *
+     * @return <code>true</code> if the file was written, <code>false</code> if it was already up to date
+     */
+    private boolean writeDocument(ObjectWriter writer, File file, String encoding) throws IOException {
+        Charset charset = encoding != null ? Charset.forName(encoding) : Charset.defaultCharset();
+        File tmp = createTempFile(file);
+        try {
+            Writer out = new OutputStreamWriter(new BufferedOutputStream(new FileOutputStream(tmp)), charset);
+            try {
+                // the writer creates a generator on top of the stream, each value is written as it is serialized
+                writer.writeValue(out, swagger);
+            } finally {
+                out.close();
+            }
+            return replaceIfChanged(tmp, file);
+        } finally {
+            deleteTempFile(tmp);
+        }
+    }
+
+    /**
+     * Creates a temporary file next to the given file, so that it can be renamed to it. The prefix is
+     * padded, since {@link File#createTempFile(String, String, File)} rejects prefixes shorter than three
+     * characters.
+     */
+    private static File createTempFile(File file) throws IOException {
+        return File.createTempFile("." + file.getName() + "-", ".tmp", file.getAbsoluteFile().getParentFile());
+    }
+
+    private static void deleteTempFile(File tmp) {
+        if (tmp.exists() && !tmp.delete()) {
+            tmp.deleteOnExit();
+        }
+    }
+
+    /**
+     * Moves a freshly written temporary file over the target file, unless both have the same content, in
+     * which case the target file, and its modification time, are left untouched. Where the file system
+     * renames over an existing file, readers of the target file see either its previous content or its
+     * new content. Elsewhere the target file is deleted before the rename, and is missing in between.
+     *
+     * @return <code>true</code> if the target file was replaced
+     */
+    private boolean replaceIfChanged(File tmp, File file) throws IOException {
+        if (file.isFile() && file.length() == tmp.length() && FileUtils.contentEquals(tmp, file)) {
+            return false;
+        }
+        if (!tmp.renameTo(file)) {
+            // renaming over an existing file fails on some platforms
+            LOG.warn("Cannot rename over " + file + ", replacing it non-atomically");
+            if (!file.delete() || !tmp.renameTo(file)) {
+                throw new IOException("Cannot replace " + file);
+            }
+        }
+        return true;
     }
 
     public void loadModelModifier() throws GenerateException, IOException {
         ObjectMapper objectMapper = Json.mapper();
         if (apiSource.isUseJAXBAnnotationProcessor()) {
+            // register the modules on a copy, the shared mapper must stay untouched for the other apiSources
+            objectMapper = objectMapper.copy();
             JaxbAnnotationModule jaxbAnnotationModule = new JaxbAnnotationModule();
             if (apiSource.isUseJAXBAnnotationProcessorAsPrimary()) {
                 jaxbAnnotationModule.setPriority(Priority.PRIMARY);    
@@ -257,7 +436,7 @@ public abstract class AbstractDocumentSource {
             }
         }
 
-        ModelConverters.getInstance().addConverter(modelModifier);
+        generationContext.addConverter(modelModifier);
     }
 
     public void loadModelConverters() throws MojoExecutionException {
@@ -268,10 +447,10 @@ public abstract class AbstractDocumentSource {
 
         for (String modelConverter : modelConverters) {
             try {
-                final Class<?> modelConverterClass = Class.forName(modelConverter);
+                final Class<?> modelConverterClass = Utils.loadClass(modelConverter);
                 if (ModelConverter.class.isAssignableFrom(modelConverterClass)) {
                     final ModelConverter modelConverterInstance = (ModelConverter) modelConverterClass.newInstance();
-                    ModelConverters.getInstance().addConverter(modelConverterInstance);
+                    generationContext.addConverter(modelConverterInstance);
                 } else {
                     throw new MojoExecutionException(
                             String.format("Class %s has to be a subclass of %s",
@@ -294,7 +473,7 @@ public abstract class AbstractDocumentSource {
         }
         for (String typeToSkip : typesToSkip) {
             try {
-                Type type = Class.forName(typeToSkip);
+                Type type = Utils.loadClass(typeToSkip);
                 this.typesToSkip.add(type);
             } catch (ClassNotFoundException e) {
                 throw new GenerateException(e);
@@ -329,19 +508,21 @@ public abstract class AbstractDocumentSource {
         LOG.info("Writing doc to " + outputPath + "...");
 
         try {
-            FileOutputStream fileOutputStream = new FileOutputStream(outputPath);
-            OutputStreamWriter writer = new OutputStreamWriter(fileOutputStream, Charset.forName("UTF-8"));
-
-            TemplatePath tp = Utils.parseTemplateUrl(templatePath);
-
-            Handlebars handlebars = new Handlebars(tp.loader);
-            initHandlebars(handlebars);
+            Template template = templateCache.get(templatePath);
 
-            Template template = handlebars.compile(tp.name);
-
-            template.apply(swagger, writer);
-            writer.close();
-            LOG.info("Done!");
+            File outputFile = new File(outputPath);
+            File tmp = createTempFile(outputFile);
+            try {
+                OutputStreamWriter writer = new OutputStreamWriter(new FileOutputStream(tmp), Charset.forName("UTF-8"));
+                try {
+                    template.apply(swagger, writer);
+                } finally {
+                    writer.close();
+                }
+                LOG.info(replaceIfChanged(tmp, outputFile) ? "Done!" : outputFile.getName() + " is up to date");
+            } finally {
+                deleteTempFile(tmp);
+            }
         } catch (MalformedURLException e) {
             throw new GenerateException(e);
         } catch (IOException e) {
@@ -349,39 +530,6 @@ public abstract class AbstractDocumentSource {
         }
     }
 
-    private void initHandlebars(Handlebars handlebars) {
-        handlebars.registerHelper("ifeq", new Helper<String>() {
-            @Override
-            public CharSequence apply(String value, Options options) throws IOException {
-                if (value == null || options.param(0) == null) {
-                    return options.inverse();
-                }
-                if (value.equals(options.param(0))) {
-                    return options.fn();
-                }
-                return options.inverse();
-            }
-        });
-
-        handlebars.registerHelper("basename", new Helper<String>() {
-            @Override
-            public CharSequence apply(String value, Options options) throws IOException {
-                if (value == null) {
-                    return null;
-                }
-                int lastSlash = value.lastIndexOf("/");
-                if (lastSlash == -1) {
-                    return value;
-                } else {
-                    return value.substring(lastSlash + 1);
-                }
-            }
-        });
-
-        handlebars.registerHelper(StringHelpers.join.name(), StringHelpers.join);
-        handlebars.registerHelper(StringHelpers.lower.name(), StringHelpers.lower);
-    }
-
     /**
      * Resolves the API reader which should be used to scan the classes.
      * 
@@ -412,7 +560,7 @@ public abstract class AbstractDocumentSource {
     		for (String clazz : clazzes) {
     			SwaggerExtension extension;
 				try {
-					extension = (SwaggerExtension) Class.forName(clazz).newInstance();
+					extension = (SwaggerExtension) Utils.loadClass(clazz).newInstance();
 				} catch (Exception e) {
 					throw new GenerateException("Cannot load Swagger extension: " + clazz, e);
 				}
@@ -422,10 +570,30 @@ public abstract class AbstractDocumentSource {
     	return resolved;
     }
 
+    /**
+     * Resolves the annotations configured to mark method parameters as API parameters.
+     *
+     * @return the annotation classes
+     * @throws GenerateException if a class cannot be loaded or is not an annotation
+     */
+    private List<Class<? extends Annotation>> resolveParameterAnnotations() throws GenerateException {
+        List<Class<? extends Annotation>> annotations = new ArrayList<Class<? extends Annotation>>();
+        for (String annotationName : apiSource.getParameterAnnotations()) {
+            try {
+                annotations.add(Utils.loadClass(annotationName).asSubclass(Annotation.class));
+            } catch (ClassNotFoundException e) {
+                throw new GenerateException("Cannot load parameter annotation: " + annotationName, e);
+            } catch (ClassCastException e) {
+                throw new GenerateException(annotationName + " is not an annotation", e);
+            }
+        }
+        return annotations;
+    }
+
     protected ClassSwaggerReader getCustomApiReader(String customReaderClassName) throws GenerateException {
         try {
             LOG.info("Reading custom API reader: " + customReaderClassName);
-            Class<?> clazz = Class.forName(customReaderClassName);
+            Class<?> clazz = Utils.loadClass(customReaderClassName);
             if (AbstractReader.class.isAssignableFrom(clazz)) {
                 Constructor<?> constructor = clazz.getConstructor(Swagger.class, Log.class);
                 return (ClassSwaggerReader) constructor.newInstance(swagger, LOG);
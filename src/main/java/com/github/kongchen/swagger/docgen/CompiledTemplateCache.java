@@ -0,0 +1,97 @@
+package com.github.kongchen.swagger.docgen;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.github.jknack.handlebars.Handlebars;
+import com.github.jknack.handlebars.Helper;
+import com.github.jknack.handlebars.Options;
+import com.github.jknack.handlebars.Template;
+import com.github.jknack.handlebars.helper.StringHelpers;
+
+/**
+ * Compiled Handlebars templates, shared by the apiSources of an execution.
+ * <p>
+ * A template is compiled, together with its partials, the first time it is asked for and is returned as
+ * is afterwards. A template read from the file system is compiled again when its file was modified since;
+ * a change to one of its partials only is not detected. Compiled templates are immutable, so they may be
+ * applied by several threads at once.
+ */
+public class CompiledTemplateCache {
+    private final Map<String, Handlebars> handlebarsByLoader = new HashMap<String, Handlebars>();
+    private final Map<String, CompiledTemplate> templates = new HashMap<String, CompiledTemplate>();
+
+    /**
+     * @param templatePath template path as configured, see {@link Utils#parseTemplateUrl(String)}
+     * @return the compiled template
+     * @throws GenerateException if the template path is not valid
+     * @throws IOException       if the template or one of its partials cannot be read or compiled
+     */
+    public synchronized Template get(String templatePath) throws GenerateException, IOException {
+        long lastModified = lastModified(templatePath);
+        CompiledTemplate compiled = templates.get(templatePath);
+        if (compiled == null || compiled.lastModified != lastModified) {
+            TemplatePath tp = Utils.parseTemplateUrl(templatePath);
+            String loaderKey = tp.loader.getClass().getName() + "|" + tp.prefix + "|" + tp.suffix;
+            Handlebars handlebars = handlebarsByLoader.get(loaderKey);
+            if (handlebars == null) {
+                handlebars = new Handlebars(tp.loader);
+                initHandlebars(handlebars);
+                handlebarsByLoader.put(loaderKey, handlebars);
+            }
+            compiled = new CompiledTemplate(handlebars.compile(tp.name), lastModified);
+            templates.put(templatePath, compiled);
+        }
+        return compiled.template;
+    }
+
+    private static long lastModified(String templatePath) {
+        File file = new File(templatePath);
+        return file.isFile() ? file.lastModified() : 0;
+    }
+
+    private static void initHandlebars(Handlebars handlebars) {
+        handlebars.registerHelper("ifeq", new Helper<String>() {
+            @Override
+            public CharSequence apply(String value, Options options) throws IOException {
+                if (value == null || options.param(0) == null) {
+                    return options.inverse();
+                }
+                if (value.equals(options.param(0))) {
+                    return options.fn();
+                }
+                return options.inverse();
+            }
+        });
+
+        handlebars.registerHelper("basename", new Helper<String>() {
+            @Override
+            public CharSequence apply(String value, Options options) throws IOException {
+                if (value == null) {
+                    return null;
+                }
+                int lastSlash = value.lastIndexOf("/");
+                if (lastSlash == -1) {
+                    return value;
+                } else {
+                    return value.substring(lastSlash + 1);
+                }
+            }
+        });
+
+        handlebars.registerHelper(StringHelpers.join.name(), StringHelpers.join);
+        handlebars.registerHelper(StringHelpers.lower.name(), StringHelpers.lower);
+    }
+
+    private static final class CompiledTemplate {
+        private final Template template;
+        private final long lastModified;
+
+        CompiledTemplate(Template template, long lastModified) {
+            this.template = template;
+            this.lastModified = lastModified;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.github.kongchen.swagger.docgen;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import io.swagger.config.FilterFactory;
+import io.swagger.converter.ModelConverter;
+import io.swagger.converter.ModelConverters;
+import io.swagger.core.filter.SwaggerSpecFilter;
+import io.swagger.jaxrs.ext.SwaggerExtension;
+import io.swagger.jaxrs.ext.SwaggerExtensions;
+
+/**
+ * Isolates the swagger-core global state touched while one apiSource is generated.
+ * <p>
+ * swagger-core keeps the extension chain ({@link SwaggerExtensions}), the model converter chain
+ * ({@link ModelConverters}) and the spec filter ({@link FilterFactory}) in JVM-wide singletons. Between
+ * {@link #enter()} and {@link #exit()} a context holds a lock shared by all contexts that may run
+ * concurrently, and every change it made to those singletons is undone on exit. The phases running
+ * outside of a context (writing the documents) must not use the singletons.
+ * <p>
+ * Contexts created with {@link #GenerationContext()} share one lock with each other, so they are
+ * serialized whichever executions they belong to, e.g. executions of several modules of a parallel
+ * reactor build sharing the plugin class loader, and hence the swagger-core singletons.
+ */
+public class GenerationContext {
+    private static final Lock SHARED_LOCK = new ReentrantLock();
+
+    private final Lock lock;
+    private final List<ModelConverter> converters = new ArrayList<ModelConverter>();
+    private List<SwaggerExtension> savedExtensions;
+    private SwaggerSpecFilter savedFilter;
+
+    /**
+     * Creates a context serialized with all the other contexts using the shared lock.
+     */
+    public GenerationContext() {
+        this(SHARED_LOCK);
+    }
+
+    /**
+     * @param lock lock shared by all the contexts which may be entered concurrently
+     */
+    public GenerationContext(Lock lock) {
+        this.lock = lock;
+    }
+
+    /**
+     * Acquires the shared lock and records the current global state.
+     */
+    public void enter() {
+        lock.lock();
+        savedExtensions = new ArrayList<SwaggerExtension>(SwaggerExtensions.getExtensions());
+        savedFilter = FilterFactory.getFilter();
+    }
+
+    /**
+     * Removes the converters registered through this context, restores the extension chain and the filter
+     * recorded by {@link #enter()} and releases the shared lock.
+     */
+    public void exit() {
+        try {
+            for (ModelConverter converter : converters) {
+                ModelConverters.getInstance().removeConverter(converter);
+            }
+            converters.clear();
+            if (savedExtensions != null) {
+                SwaggerExtensions.setExtensions(savedExtensions);
+            }
+            FilterFactory.setFilter(savedFilter);
+        } finally {
+            savedExtensions = null;
+            savedFilter = null;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds a converter in front of the global converter chain until {@link #exit()}.
+     *
+     * @param converter converter to add
+     */
+    public void addConverter(ModelConverter converter) {
+        ModelConverters.getInstance().addConverter(converter);
+        converters.add(converter);
+    }
+
+    /**
+     * Sets the global spec filter until {@link #exit()}.
+     *
+     * @param filter filter to use
+     */
+    public void setFilter(SwaggerSpecFilter filter) {
+        FilterFactory.setFilter(filter);
+    }
+}
@@ -9,11 +9,11 @@ import io.swagger.models.Response;
 import io.swagger.models.Swagger;
 import io.swagger.models.Tag;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.List;
 import java.util.Map;
+import java.util.SortedMap;
 import java.util.TreeMap;
 
 /**
@@ -23,6 +23,26 @@ public class Utils {
 
     private static final java.lang.String CLASSPATH = "classpath:";
 
+    /**
+     * Loads a class of the project, through the context class loader if there is one. The context class
+     * loader sees the classes as they are now, when the plugin class loader may hold stale versions of them.
+     *
+     * @param className fully qualified name of the class
+     * @return the initialized class
+     * @throws ClassNotFoundException if the class cannot be found
+     */
+    public static Class<?> loadClass(String className) throws ClassNotFoundException {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        if (contextClassLoader != null) {
+            try {
+                return Class.forName(className, true, contextClassLoader);
+            } catch (ClassNotFoundException e) {
+                // fall back to the class loader of the plugin
+            }
+        }
+        return Class.forName(className);
+    }
+
     public static TemplatePath parseTemplateUrl(String templatePath) throws GenerateException {
         if (templatePath == null) {
             return null;
@@ -66,60 +86,72 @@ public class Utils {
         return tp;
     }
 
+    private static final Comparator<Tag> TAG_ORDER = new Comparator<Tag>() {
+        public int compare(final Tag a, final Tag b) {
+            return a.toString().compareTo(b.toString());
+        }
+    };
+
+    /**
+     * Sorts the paths, the responses of each operation, the definitions and the tags of a swagger. The
+     * readers of this plugin build them in order already, so only what a custom reader left unsorted is
+     * sorted here. Empty definitions, which the readers create up front, are dropped.
+     */
     public static void sortSwagger(Swagger swagger) throws GenerateException {
-        if (swagger == null || swagger.getPaths() == null) {
+        if (swagger == null) {
             return;
         }
-
-        TreeMap<String, Path> sortedMap = new TreeMap<String, Path>();
+        if (swagger.getDefinitions() != null && swagger.getDefinitions().isEmpty()) {
+            swagger.setDefinitions(null);
+        }
         if (swagger.getPaths() == null) {
             return;
         }
-        sortedMap.putAll(swagger.getPaths());
-        swagger.paths(sortedMap);
+
+        if (!isSorted(swagger.getPaths())) {
+            swagger.paths(new TreeMap<String, Path>(swagger.getPaths()));
+        }
 
         for (Path path : swagger.getPaths().values()) {
-            String methods[] = {"Get", "Delete", "Post", "Put", "Options", "Patch"};
-            for (String m : methods) {
-                sortResponses(path, m);
-            }
+            sortResponses(path.getGet());
+            sortResponses(path.getHead());
+            sortResponses(path.getDelete());
+            sortResponses(path.getPost());
+            sortResponses(path.getPut());
+            sortResponses(path.getOptions());
+            sortResponses(path.getPatch());
         }
 
         //reorder definitions
-        if (swagger.getDefinitions() != null) {
-            TreeMap<String, Model> defs = new TreeMap<String, Model>();
-            defs.putAll(swagger.getDefinitions());
-            swagger.setDefinitions(defs);
+        if (swagger.getDefinitions() != null && !isSorted(swagger.getDefinitions())) {
+            swagger.setDefinitions(new TreeMap<String, Model>(swagger.getDefinitions()));
         }
 
-        // order the tags
-        if (swagger.getTags() != null) {
-            Collections.sort(swagger.getTags(), new Comparator<Tag>() {
-                public int compare(final Tag a, final Tag b) {
-                    return a.toString().compareTo(b.toString());
-                }
-            });
+        // order the tags, the readers of this plugin already register them in order
+        if (swagger.getTags() != null && !isSorted(swagger.getTags(), TAG_ORDER)) {
+            Collections.sort(swagger.getTags(), TAG_ORDER);
         }
+    }
+
+    private static void sortResponses(Operation op) {
+        if (op != null && op.getResponses() != null && !isSorted(op.getResponses())) {
+            op.setResponses(new TreeMap<String, Response>(op.getResponses()));
+        }
+    }
 
+    /**
+     * @return <code>true</code> if the map keeps its keys in their natural order
+     */
+    public static boolean isSorted(Map<String, ?> map) {
+        return map instanceof SortedMap && ((SortedMap<String, ?>) map).comparator() == null;
     }
 
-    private static void sortResponses(Path path, String method) throws GenerateException {
-        try {
-            Method m = Path.class.getDeclaredMethod("get" + method);
-            Operation op = (Operation) m.invoke(path);
-            if (op == null) {
-                return;
+    private static <T> boolean isSorted(List<T> list, Comparator<? super T> comparator) {
+        for (int i = 1; i < list.size(); i++) {
+            if (comparator.compare(list.get(i - 1), list.get(i)) > 0) {
+                return false;
             }
-            Map<String, Response> responses = op.getResponses();
-            TreeMap<String, Response> res = new TreeMap<String, Response>();
-            res.putAll(responses);
-            op.setResponses(res);
-        } catch (NoSuchMethodException e) {
-            throw new GenerateException(e);
-        } catch (InvocationTargetException e) {
-            throw new GenerateException(e);
-        } catch (IllegalAccessException e) {
-            throw new GenerateException(e);
         }
+        return true;
     }
 }
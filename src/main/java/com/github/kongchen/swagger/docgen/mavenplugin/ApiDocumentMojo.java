@@ -1,8 +1,15 @@
 package com.github.kongchen.swagger.docgen.mavenplugin;
 
 import com.github.kongchen.swagger.docgen.AbstractDocumentSource;
+import com.github.kongchen.swagger.docgen.CompiledTemplateCache;
 import com.github.kongchen.swagger.docgen.GenerateException;
+import com.github.kongchen.swagger.docgen.GenerationContext;
+import com.github.kongchen.swagger.docgen.reader.PersistentModelCache;
+import com.github.kongchen.swagger.docgen.util.AnnotationIndex;
 
+import io.swagger.util.Json;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
 import org.apache.maven.plugin.AbstractMojo;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
@@ -15,7 +22,16 @@ import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.MavenProjectHelper;
 
 import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * User: kongchen
@@ -50,6 +66,59 @@ public class ApiDocumentMojo extends AbstractMojo {
     @Parameter(property="file.encoding")
     private String encoding;
 
+    /**
+     * Maximum number of apiSources generated concurrently. The default, <code>1</code>, generates them
+     * one after another. Only sorting and writing the documents run concurrently: reading the classes and
+     * resolving the models go through the swagger-core singletons, so they still run one apiSource at a time.
+     */
+    @Parameter(property = "swagger.parallelism", defaultValue = "1")
+    private int parallelism = 1;
+
+    /**
+     * A flag indicating if apiSources whose classes and configuration did not change since the previous
+     * build should be skipped. The state of the previous build is kept under the project build directory.
+     */
+    @Parameter(property = "swagger.incremental", defaultValue = "false")
+    private boolean incremental;
+
+    /**
+     * A file the time and allocation of each generation phase are written to, as JSON. The phases are
+     * then logged at info level as well, otherwise at debug level.
+     */
+    @Parameter(property = "swagger.metricsFile")
+    private File metricsFile;
+
+    /**
+     * A flag indicating if the resolved models should be kept between builds, under
+     * <code>swagger-cache</code> of the project build directory. A model is resolved again as soon as the
+     * class file of its class, or of any class it refers to, changes.
+     */
+    @Parameter(property = "swagger.modelCache", defaultValue = "false")
+    private boolean modelCache;
+
+    /**
+     * Templates compiled by this execution, shared by all apiSources.
+     */
+    private final CompiledTemplateCache templateCache = new CompiledTemplateCache();
+
+    MavenProject getProject() {
+        return project;
+    }
+
+    /**
+     * @return <code>true</code> if the resolved models are kept between builds
+     */
+    boolean isModelCacheEnabled() {
+        return modelCache;
+    }
+
+    /**
+     * @return <code>true</code> if the generated documents are attached to the project
+     */
+    boolean isAttachingArtifacts() {
+        return true;
+    }
+
     public List<ApiSource> getApiSources() {
         return apiSources;
     }
@@ -86,52 +155,258 @@ public class ApiDocumentMojo extends AbstractMojo {
             getLog().debug(apiSources.toString());
             for (ApiSource apiSource : apiSources) {
                 validateConfiguration(apiSource);
-                AbstractDocumentSource documentSource = apiSource.isSpringmvc()
-                        ? new SpringMavenDocumentSource(apiSource, getLog(), projectEncoding)
-                        : new MavenDocumentSource(apiSource, getLog(), projectEncoding);
-
-                documentSource.loadTypesToSkip();
-                documentSource.loadModelModifier();
-                documentSource.loadModelConverters();
-                documentSource.loadDocuments();
-                if (apiSource.getOutputPath() != null) {
-                    File outputDirectory = new File(apiSource.getOutputPath()).getParentFile();
-                    if (outputDirectory != null && !outputDirectory.exists()) {
-                        if (!outputDirectory.mkdirs()) {
-                            throw new MojoExecutionException("Create directory[" +
-                                    apiSource.getOutputPath() + "] for output failed.");
-                        }
+            }
+            // scan the classpath once the configuration is known to be valid
+            AnnotationIndex annotationIndex = createAnnotationIndex();
+            for (ApiSource apiSource : apiSources) {
+                apiSource.setAnnotationIndex(annotationIndex);
+            }
+
+            File stateFile = null;
+            BuildState previousState = null;
+            BuildState currentState = null;
+            if (incremental) {
+                if (project == null) {
+                    getLog().warn("Incremental generation requires a project, all apiSources will be generated.");
+                } else {
+                    stateFile = new File(project.getBuild().getDirectory(), "swagger-maven-plugin/build-state");
+                    previousState = BuildState.load(stateFile);
+                    //noinspection unchecked
+                    currentState = BuildState.ofClasspath((List<String>) project.getCompileClasspathElements());
+                }
+            }
+
+            List<ApiSource> outdatedSources = new ArrayList<ApiSource>();
+            List<GenerationMetrics> metrics = new ArrayList<GenerationMetrics>();
+            for (int i = 0; i < apiSources.size(); i++) {
+                ApiSource apiSource = apiSources.get(i);
+                if (currentState != null) {
+                    String configuration = BuildState.hashConfiguration(apiSource, getEnvironment());
+                    currentState.setConfiguration(i, configuration);
+                    if (currentState.hasSameClasses(previousState)
+                            && configuration.equals(previousState.getConfiguration(i))
+                            && outputsExist(apiSource)) {
+                        getLog().info("Swagger documents of apiSource " + (i + 1) + " are up to date.");
+                        continue;
                     }
                 }
-                if (apiSource.getTemplatePath() != null) {
-                    documentSource.toDocuments();
+                outdatedSources.add(apiSource);
+                metrics.add(new GenerationMetrics(i + 1));
+            }
+            if (stateFile != null && !outdatedSources.isEmpty() && stateFile.exists() && !stateFile.delete()) {
+                throw new MojoExecutionException("Cannot delete " + stateFile);
+            }
+
+            if (parallelism > 1 && outdatedSources.size() > 1) {
+                generateInParallel(outdatedSources, metrics);
+            } else {
+                for (int i = 0; i < outdatedSources.size(); i++) {
+                    generate(outdatedSources.get(i), metrics.get(i));
                 }
-                String swaggerFileName = getSwaggerFileName(apiSource.getSwaggerFileName());
-                documentSource.toSwaggerDocuments(
-                        apiSource.getSwaggerUIDocBasePath() == null
-                                ? apiSource.getBasePath()
-                                : apiSource.getSwaggerUIDocBasePath(),
-                        apiSource.getOutputFormats(), swaggerFileName, projectEncoding);
-
-
-                if (apiSource.isAttachSwaggerArtifact() && apiSource.getSwaggerDirectory() != null && project != null) {
-                    String outputFormats = apiSource.getOutputFormats();
-                    if (outputFormats != null) {
-                        for (String format : outputFormats.split(",")) {
-                            String classifier = swaggerFileName.equals("swagger")
-                                    ? getSwaggerDirectoryName(apiSource.getSwaggerDirectory())
-                                    : swaggerFileName;
-                            File swaggerFile = new File(apiSource.getSwaggerDirectory(), swaggerFileName + "." + format.toLowerCase());
-                            projectHelper.attachArtifact(project, format.toLowerCase(), classifier, swaggerFile);
-                        }
-                    }
+            }
+            writeMetrics(metrics);
+
+            if (isAttachingArtifacts()) {
+                for (ApiSource apiSource : apiSources) {
+                    attachSwaggerArtifacts(apiSource);
                 }
             }
+            if (stateFile != null) {
+                currentState.save(stateFile);
+            }
         } catch (GenerateException e) {
             throw new MojoFailureException(e.getMessage(), e);
         } catch (Exception e) {
             throw new MojoExecutionException(e.getMessage(), e);
+        } finally {
+            releaseExecutionState();
+        }
+    }
+
+    /**
+     * Releases what this execution keeps of the project classes, which would otherwise stay reachable
+     * from the plugin class loader in a long-lived JVM. The swagger-core chains are already restored by
+     * {@link GenerationContext#exit()}.
+     */
+    private void releaseExecutionState() {
+        for (ApiSource apiSource : apiSources) {
+            if (apiSource != null) {
+                apiSource.setAnnotationIndex(null);
+            }
+        }
+        Json.mapper().getTypeFactory().clearCache();
+    }
+
+    /**
+     * Runs the pipeline of each apiSource on a bounded pool. The phases using the swagger-core global state
+     * are serialized through the shared lock of {@link GenerationContext}, writing the documents runs
+     * concurrently.
+     */
+    private void generateInParallel(List<ApiSource> sources, List<GenerationMetrics> metrics)
+            throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, sources.size()));
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int i = 0; i < sources.size(); i++) {
+                final ApiSource apiSource = sources.get(i);
+                final GenerationMetrics sourceMetrics = metrics.get(i);
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws Exception {
+                        generate(apiSource, sourceMetrics);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof Exception) {
+                        throw (Exception) cause;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    throw e;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Runs the pipeline of one apiSource. The load phases hold the shared lock of {@link GenerationContext},
+     * which also serializes them with the executions of other modules of a parallel reactor build.
+     */
+    private void generate(ApiSource apiSource, GenerationMetrics metrics)
+            throws GenerateException, MojoExecutionException, MojoFailureException, IOException {
+        AbstractDocumentSource documentSource = apiSource.isSpringmvc()
+                ? new SpringMavenDocumentSource(apiSource, getLog(), projectEncoding)
+                : new MavenDocumentSource(apiSource, getLog(), projectEncoding);
+
+        GenerationContext context = new GenerationContext();
+        documentSource.setGenerationContext(context);
+        documentSource.setTemplateCache(templateCache);
+        if (isModelCacheEnabled()) {
+            File buildDirectory = project != null ? new File(project.getBuild().getDirectory()) : new File("target");
+            documentSource.setPersistentModelCache(new PersistentModelCache(new File(buildDirectory, "swagger-cache"),
+                    BuildState.hashModelConfiguration(apiSource, getEnvironment()), getLog()));
+        }
+        context.enter();
+        try {
+            metrics.start("loadTypesToSkip");
+            documentSource.loadTypesToSkip();
+            metrics.stop();
+            metrics.start("loadModelModifier");
+            documentSource.loadModelModifier();
+            metrics.stop();
+            metrics.start("loadModelConverters");
+            documentSource.loadModelConverters();
+            metrics.stop();
+            metrics.start("loadDocuments", apiSource.getReaderParallelism() > 1);
+            documentSource.loadDocuments();
+            metrics.stop();
+        } finally {
+            context.exit();
+        }
+
+        if (apiSource.getOutputPath() != null) {
+            File outputDirectory = new File(apiSource.getOutputPath()).getParentFile();
+            if (outputDirectory != null && !outputDirectory.exists()) {
+                if (!outputDirectory.mkdirs() && !outputDirectory.isDirectory()) {
+                    throw new MojoExecutionException("Create directory[" +
+                            apiSource.getOutputPath() + "] for output failed.");
+                }
+            }
+        }
+        if (apiSource.getTemplatePath() != null) {
+            metrics.start("toDocuments");
+            documentSource.toDocuments();
+            metrics.stop();
+        }
+        String swaggerFileName = getSwaggerFileName(apiSource.getSwaggerFileName());
+        metrics.start("toSwaggerDocuments",
+                apiSource.getOutputFormats() != null && apiSource.getOutputFormats().split(",").length > 1);
+        documentSource.toSwaggerDocuments(
+                apiSource.getSwaggerUIDocBasePath() == null
+                        ? apiSource.getBasePath()
+                        : apiSource.getSwaggerUIDocBasePath(),
+                apiSource.getOutputFormats(), swaggerFileName, projectEncoding);
+        metrics.stop();
+        metrics.count(documentSource.getClassCount(), documentSource.getSwagger());
+    }
+
+    /**
+     * Logs the metrics, at info level if they are also written to the metrics file, and writes them.
+     */
+    private void writeMetrics(List<GenerationMetrics> metrics) throws IOException {
+        for (GenerationMetrics sourceMetrics : metrics) {
+            sourceMetrics.log(getLog(), metricsFile != null);
+        }
+        if (metricsFile != null) {
+            GenerationMetrics.write(metrics, metricsFile);
+        }
+    }
+
+    private void attachSwaggerArtifacts(ApiSource apiSource) {
+        if (apiSource.isAttachSwaggerArtifact() && apiSource.getSwaggerDirectory() != null && project != null) {
+            String outputFormats = apiSource.getOutputFormats();
+            if (outputFormats != null) {
+                String swaggerFileName = getSwaggerFileName(apiSource.getSwaggerFileName());
+                for (String format : outputFormats.split(",")) {
+                    String classifier = swaggerFileName.equals("swagger")
+                            ? getSwaggerDirectoryName(apiSource.getSwaggerDirectory())
+                            : swaggerFileName;
+                    File swaggerFile = new File(apiSource.getSwaggerDirectory(), swaggerFileName + "." + format.toLowerCase());
+                    projectHelper.attachArtifact(project, format.toLowerCase(), classifier, swaggerFile);
+                }
+            }
+        }
+    }
+
+    /**
+     * Settings outside of the apiSources which change the generated documents.
+     */
+    private String getEnvironment() {
+        return projectEncoding + "|" + BuildState.describeCodeSource(ApiDocumentMojo.class);
+    }
+
+    private boolean outputsExist(ApiSource apiSource) {
+        if (apiSource.getTemplatePath() != null && apiSource.getOutputPath() != null
+                && !new File(apiSource.getOutputPath()).isFile()) {
+            return false;
+        }
+        if (apiSource.getSwaggerDirectory() != null) {
+            String swaggerFileName = getSwaggerFileName(apiSource.getSwaggerFileName());
+            String outputFormats = apiSource.getOutputFormats() == null ? "json" : apiSource.getOutputFormats();
+            for (String format : outputFormats.split(",")) {
+                File swaggerFile = new File(apiSource.getSwaggerDirectory(), swaggerFileName + "." + format.toLowerCase());
+                if (!swaggerFile.isFile()) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates one classpath index covering the locations of all apiSources, so the classpath is
+     * scanned a single time per execution whatever the number of apiSources and annotation lookups.
+     */
+    private AnnotationIndex createAnnotationIndex() throws DependencyResolutionRequiredException {
+        List<String> classpathElements = null;
+        if (project != null) {
+            //noinspection unchecked
+            classpathElements = (List<String>) project.getCompileClasspathElements();
+        }
+        Set<String> locations = new LinkedHashSet<String>();
+        for (ApiSource apiSource : apiSources) {
+            locations.addAll(apiSource.getLocations());
         }
+        return new AnnotationIndex(locations, classpathElements);
     }
 
     /**
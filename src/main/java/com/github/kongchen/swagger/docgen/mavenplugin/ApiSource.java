@@ -3,14 +3,14 @@ package com.github.kongchen.swagger.docgen.mavenplugin;
 import java.io.File;
 import java.lang.annotation.Annotation;
 import java.util.ArrayList;
-import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
 import org.apache.maven.plugins.annotations.Parameter;
-import org.reflections.Reflections;
 import org.springframework.core.annotation.AnnotationUtils;
 
+import com.github.kongchen.swagger.docgen.util.AnnotationIndex;
+
 import io.swagger.annotations.SwaggerDefinition;
 import io.swagger.models.Contact;
 import io.swagger.models.Info;
@@ -134,25 +134,38 @@ public class ApiSource {
     @Parameter
     private List<String> modelConverters;
 
+    /**
+     * Full qualified names of annotations marking method parameters as API parameters, in addition to the
+     * JAX-RS, Spring MVC and swagger ones.
+     */
+    @Parameter
+    private List<String> parameterAnnotations;
+
+    /**
+     * Number of threads reading the classes of this apiSource. Readers which cannot read classes
+     * concurrently, such as custom readers, read them one after another.
+     */
+    @Parameter(defaultValue = "1")
+    private int readerParallelism = 1;
+
+    /**
+     * Classpath index answering the annotation queries, shared between the apiSources of one execution.
+     */
+    private transient AnnotationIndex annotationIndex;
+
     public Set<Class<?>> getValidClasses(Class<? extends Annotation> clazz) {
-        Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
-        if (getLocations() == null) {
-            Set<Class<?>> c = new Reflections("").getTypesAnnotatedWith(clazz, true);
-            classes.addAll(c);
-
-            Set<Class<?>> inherited = new Reflections("").getTypesAnnotatedWith(clazz);
-            classes.addAll(inherited);
-        } else {
-            for (String location : locations) {
-                Set<Class<?>> c = new Reflections(location).getTypesAnnotatedWith(clazz, true);
-                classes.addAll(c);
-
-                Set<Class<?>> inherited = new Reflections(location).getTypesAnnotatedWith(clazz);
-                classes.addAll(inherited);
-            }
+        return getAnnotationIndex().getTypesAnnotatedWith(clazz, getLocations());
+    }
+
+    public AnnotationIndex getAnnotationIndex() {
+        if (annotationIndex == null) {
+            annotationIndex = new AnnotationIndex(getLocations());
         }
+        return annotationIndex;
+    }
 
-        return classes;
+    public void setAnnotationIndex(AnnotationIndex annotationIndex) {
+        this.annotationIndex = annotationIndex;
     }
 
     public List<String> getApiModelPropertyAccessExclusions() {
@@ -422,5 +435,20 @@ public class ApiSource {
     public void setModelConverters(List<String> modelConverters) {
         this.modelConverters = modelConverters;
     }
-}
 
+    public int getReaderParallelism() {
+        return readerParallelism;
+    }
+
+    public void setReaderParallelism(int readerParallelism) {
+        this.readerParallelism = readerParallelism;
+    }
+
+    public List<String> getParameterAnnotations() {
+        return parameterAnnotations;
+    }
+
+    public void setParameterAnnotations(List<String> parameterAnnotations) {
+        this.parameterAnnotations = parameterAnnotations;
+    }
+}
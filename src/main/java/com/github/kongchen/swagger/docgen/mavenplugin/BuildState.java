@@ -0,0 +1,312 @@
+package com.github.kongchen.swagger.docgen.mavenplugin;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect.Visibility;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Fingerprint of the inputs of one execution, persisted between builds to skip the apiSources whose
+ * inputs did not change.
+ * <p>
+ * The state records a content hash for every class file found in the directories of the compile
+ * classpath, the size and modification time of every jar of the compile classpath, and a hash of the
+ * configuration of every apiSource.
+ */
+class BuildState {
+    private static final String CLASS_PREFIX = "class:";
+    private static final String SOURCE_PREFIX = "source:";
+
+    private final Map<String, String> entries;
+
+    private BuildState(Map<String, String> entries) {
+        this.entries = entries;
+    }
+
+    /**
+     * Reads a state written by {@link #save(File)}.
+     *
+     * @param file state file
+     * @return the persisted state, empty if the file does not exist or cannot be read
+     */
+    static BuildState load(File file) {
+        Map<String, String> entries = new TreeMap<String, String>();
+        if (file.isFile()) {
+            try {
+                for (String line : FileUtils.readLines(file, "UTF-8")) {
+                    int separator = line.lastIndexOf('=');
+                    if (separator > 0) {
+                        entries.put(line.substring(0, separator), line.substring(separator + 1));
+                    }
+                }
+            } catch (IOException e) {
+                entries.clear();
+            }
+        }
+        return new BuildState(entries);
+    }
+
+    /**
+     * Fingerprints the compile classpath.
+     *
+     * @param classpathElements directories and jars of the compile classpath
+     * @return a state holding the class entries only
+     * @throws IOException if a class file cannot be read
+     */
+    static BuildState ofClasspath(List<String> classpathElements) throws IOException {
+        Map<String, String> entries = new TreeMap<String, String>();
+        for (String element : classpathElements) {
+            File file = new File(element);
+            if (file.isDirectory()) {
+                // keyed by directory, so that a class file shadowed by one of another directory is tracked too
+                hashClasses(file, file.getAbsolutePath() + "/", entries);
+            } else if (file.isFile()) {
+                entries.put(CLASS_PREFIX + file.getAbsolutePath(), file.length() + "@" + file.lastModified());
+            }
+        }
+        return new BuildState(entries);
+    }
+
+    private static void hashClasses(File dir, String path, Map<String, String> entries) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                hashClasses(file, path + file.getName() + "/", entries);
+            } else if (file.getName().endsWith(".class")) {
+                InputStream in = new FileInputStream(file);
+                try {
+                    entries.put(CLASS_PREFIX + path + file.getName(), hash(IOUtils.toByteArray(in)));
+                } finally {
+                    in.close();
+                }
+            }
+        }
+    }
+
+    /**
+     * Hashes the configuration of an apiSource together with the files it points to.
+     *
+     * @param apiSource   apiSource to hash
+     * @param environment additional settings of the execution affecting the output
+     * @return the configuration hash
+     * @throws IOException if the configuration cannot be serialized
+     */
+    static String hashConfiguration(ApiSource apiSource, String environment) throws IOException {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.setVisibility(PropertyAccessor.ALL, Visibility.NONE);
+        mapper.setVisibility(PropertyAccessor.FIELD, Visibility.ANY);
+        mapper.configure(SerializationFeature.FAIL_ON_EMPTY_BEANS, false);
+        mapper.configure(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS, true);
+        mapper.configure(MapperFeature.SORT_PROPERTIES_ALPHABETICALLY, true);
+
+        StringBuilder configuration = new StringBuilder(mapper.writeValueAsString(apiSource));
+        configuration.append('|').append(environment);
+        configuration.append('|').append(hashTemplate(apiSource.getTemplatePath()));
+        configuration.append('|').append(hashResource(apiSource.getModelSubstitute()));
+        if (apiSource.getDescriptionFile() != null) {
+            configuration.append('|').append(hashResource(apiSource.getDescriptionFile().getPath()));
+        }
+        return hash(configuration.toString().getBytes("UTF-8"));
+    }
+
+    /**
+     * Hashes the settings of an apiSource which affect the resolved models.
+     *
+     * The configured model converters are hashed with their class files, since they may be classes of
+     * the project itself.
+     *
+     * @param apiSource   apiSource to hash
+     * @param environment additional settings of the execution affecting the models
+     * @return the model configuration hash
+     * @throws IOException if the model substitute file or a class file cannot be read
+     */
+    static String hashModelConfiguration(ApiSource apiSource, String environment) throws IOException {
+        StringBuilder configuration = new StringBuilder(environment);
+        configuration.append('|').append(apiSource.isUseJAXBAnnotationProcessor());
+        configuration.append('|').append(apiSource.isUseJAXBAnnotationProcessorAsPrimary());
+        configuration.append('|').append(apiSource.getApiModelPropertyAccessExclusions());
+        configuration.append('|').append(apiSource.getModelConverters());
+        if (apiSource.getModelConverters() != null) {
+            for (String modelConverter : apiSource.getModelConverters()) {
+                configuration.append('|').append(hashClassFile(modelConverter));
+            }
+        }
+        configuration.append('|').append(hashResource(apiSource.getModelSubstitute()));
+        return hash(configuration.toString().getBytes("UTF-8"));
+    }
+
+    /**
+     * Describes the jar or the directory a class was loaded from, by its location and, for a jar, by
+     * its size and modification time, so that a jar rebuilt in place is told apart.
+     *
+     * @param cls class to describe the code source of
+     * @return the description of the code source
+     */
+    static String describeCodeSource(Class<?> cls) {
+        if (cls.getProtectionDomain().getCodeSource() == null) {
+            return "";
+        }
+        URL location = cls.getProtectionDomain().getCodeSource().getLocation();
+        File file = FileUtils.toFile(location);
+        if (file != null && file.isFile()) {
+            return location + "@" + file.length() + "@" + file.lastModified();
+        }
+        return String.valueOf(location);
+    }
+
+    /**
+     * Hashes a template together with the partials it may include, that is every file with the extension
+     * of the template in the directory of the template and below. A template read from a jar is tracked
+     * with the jar.
+     */
+    private static String hashTemplate(String templatePath) throws IOException {
+        if (templatePath == null) {
+            return "";
+        }
+        File template;
+        if (templatePath.startsWith("classpath:")) {
+            URL url = BuildState.class.getResource(templatePath.substring("classpath:".length()));
+            template = url != null ? FileUtils.toFile(url) : null;
+        } else {
+            template = new File(templatePath);
+        }
+        if (template == null || !template.isFile()) {
+            return hashResource(templatePath);
+        }
+        String name = template.getName();
+        String suffix = name.lastIndexOf('.') != -1 ? name.substring(name.lastIndexOf('.')) : "";
+        Map<String, String> hashes = new TreeMap<String, String>();
+        hashFiles(template.getAbsoluteFile().getParentFile(), "", suffix, hashes);
+        return hash(hashes.toString().getBytes("UTF-8"));
+    }
+
+    private static void hashFiles(File dir, String path, String suffix, Map<String, String> hashes) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                hashFiles(file, path + file.getName() + "/", suffix, hashes);
+            } else if (file.getName().endsWith(suffix)) {
+                hashes.put(path + file.getName(), hash(FileUtils.readFileToByteArray(file)));
+            }
+        }
+    }
+
+    private static String hashClassFile(String className) throws IOException {
+        String resourceName = className.replace('.', '/') + ".class";
+        InputStream in = null;
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        if (contextClassLoader != null) {
+            in = contextClassLoader.getResourceAsStream(resourceName);
+        }
+        if (in == null) {
+            in = BuildState.class.getClassLoader().getResourceAsStream(resourceName);
+        }
+        if (in == null) {
+            return className;
+        }
+        try {
+            return hash(IOUtils.toByteArray(in));
+        } finally {
+            in.close();
+        }
+    }
+
+    private static String hashResource(String path) throws IOException {
+        if (path == null) {
+            return "";
+        }
+        InputStream in;
+        if (path.startsWith("classpath:")) {
+            in = BuildState.class.getResourceAsStream(path.substring("classpath:".length()));
+        } else if (new File(path).isFile()) {
+            in = new FileInputStream(path);
+        } else {
+            in = BuildState.class.getResourceAsStream(path);
+        }
+        if (in == null) {
+            return path;
+        }
+        try {
+            return hash(IOUtils.toByteArray(in));
+        } finally {
+            in.close();
+        }
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @param other state to compare with
+     * @return {@code true} if both states hold the same class entries
+     */
+    boolean hasSameClasses(BuildState other) {
+        return classEntries().equals(other.classEntries());
+    }
+
+    private Map<String, String> classEntries() {
+        Map<String, String> classes = new TreeMap<String, String>();
+        for (Map.Entry<String, String> entry : entries.entrySet()) {
+            if (entry.getKey().startsWith(CLASS_PREFIX)) {
+                classes.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return classes;
+    }
+
+    String getConfiguration(int sourceIndex) {
+        return entries.get(SOURCE_PREFIX + sourceIndex);
+    }
+
+    void setConfiguration(int sourceIndex, String configurationHash) {
+        entries.put(SOURCE_PREFIX + sourceIndex, configurationHash);
+    }
+
+    void save(File file) throws IOException {
+        File dir = file.getParentFile();
+        if (dir != null) {
+            FileUtils.forceMkdir(dir);
+        }
+        OutputStream out = new FileOutputStream(file);
+        try {
+            for (Map.Entry<String, String> entry : entries.entrySet()) {
+                out.write((entry.getKey() + "=" + entry.getValue() + "\n").getBytes("UTF-8"));
+            }
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.github.kongchen.swagger.docgen.mavenplugin;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Class loader looking up classes and resources in its own URLs before its parent, so that classes
+ * already loaded by the parent from the same directories are loaded again as they are now.
+ */
+class ChildFirstClassLoader extends URLClassLoader {
+
+    ChildFirstClassLoader(URL[] urls, ClassLoader parent) {
+        super(urls, parent);
+    }
+
+    @Override
+    protected synchronized Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+        Class<?> loadedClass = findLoadedClass(name);
+        if (loadedClass == null) {
+            try {
+                loadedClass = findClass(name);
+            } catch (ClassNotFoundException e) {
+                loadedClass = getParent().loadClass(name);
+            }
+        }
+        if (resolve) {
+            resolveClass(loadedClass);
+        }
+        return loadedClass;
+    }
+
+    @Override
+    public URL getResource(String name) {
+        URL resource = findResource(name);
+        return resource != null ? resource : super.getResource(name);
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.kongchen.swagger.docgen.mavenplugin;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.logging.Log;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+
+/**
+ * Wall time and allocation of the generation phases of one apiSource, with the size of the generated
+ * document.
+ * <p>
+ * The allocation is the number of bytes allocated by the generating thread, as reported by the
+ * HotSpot thread MXBean. It is <code>-1</code> on JVMs which do not report it. The allocation of the
+ * worker threads of a phase run concurrently is not included, such phases are marked as measured on the
+ * calling thread only.
+ */
+class GenerationMetrics {
+    private static final Method THREAD_ALLOCATED_BYTES = threadAllocatedBytesMethod();
+
+    private final int sourceIndex;
+    private final Map<String, long[]> phases = new LinkedHashMap<String, long[]>();
+    private final Set<String> callingThreadOnlyPhases = new HashSet<String>();
+    private String phase;
+    private long phaseStart;
+    private long phaseAllocationStart;
+    private int classes;
+    private int operations;
+    private int models;
+
+    /**
+     * @param sourceIndex position of the apiSource in the configuration, starting at 1
+     */
+    GenerationMetrics(int sourceIndex) {
+        this.sourceIndex = sourceIndex;
+    }
+
+    private static Method threadAllocatedBytesMethod() {
+        try {
+            Class<?> threadMXBean = Class.forName("com.sun.management.ThreadMXBean");
+            if (!threadMXBean.isInstance(ManagementFactory.getThreadMXBean())) {
+                return null;
+            }
+            return threadMXBean.getMethod("getThreadAllocatedBytes", long.class);
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (THREAD_ALLOCATED_BYTES == null) {
+            return -1;
+        }
+        ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+        try {
+            return (Long) THREAD_ALLOCATED_BYTES.invoke(threadMXBean, Thread.currentThread().getId());
+        } catch (Exception e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Starts measuring a phase, the previous phase must have been stopped.
+     */
+    void start(String phase) {
+        start(phase, false);
+    }
+
+    /**
+     * Starts measuring a phase, the previous phase must have been stopped.
+     *
+     * @param concurrent <code>true</code> if part of the phase runs on worker threads, whose allocation
+     *                   is not measured
+     */
+    void start(String phase, boolean concurrent) {
+        this.phase = phase;
+        if (concurrent) {
+            callingThreadOnlyPhases.add(phase);
+        }
+        this.phaseAllocationStart = allocatedBytes();
+        this.phaseStart = System.nanoTime();
+    }
+
+    /**
+     * Stops measuring the current phase.
+     */
+    void stop() {
+        long millis = (System.nanoTime() - phaseStart) / 1000000;
+        long allocated = allocatedBytes();
+        phases.put(phase, new long[]{millis, allocated < 0 || phaseAllocationStart < 0 ? -1 : allocated - phaseAllocationStart});
+        phase = null;
+    }
+
+    /**
+     * Records the size of the generated document.
+     */
+    void count(int classes, Swagger swagger) {
+        this.classes = classes;
+        operations = 0;
+        if (swagger.getPaths() != null) {
+            for (Path path : swagger.getPaths().values()) {
+                operations += path.getOperations().size();
+            }
+        }
+        models = swagger.getDefinitions() == null ? 0 : swagger.getDefinitions().size();
+    }
+
+    /**
+     * Prints the phases and counters as a table.
+     *
+     * @param info <code>true</code> to print at info level, otherwise at debug level
+     */
+    void log(Log log, boolean info) {
+        if (!info && !log.isDebugEnabled()) {
+            return;
+        }
+        print(log, info, String.format("apiSource %-22d %12s %16s", sourceIndex, "time (ms)", "allocated (KB)"));
+        for (Map.Entry<String, long[]> entry : phases.entrySet()) {
+            long[] values = entry.getValue();
+            String allocated = values[1] < 0 ? "n/a" : String.valueOf(values[1] / 1024);
+            if (values[1] >= 0 && callingThreadOnlyPhases.contains(entry.getKey())) {
+                allocated += " (calling thread only)";
+            }
+            print(log, info, String.format("  %-30s %12d %16s", entry.getKey(), values[0], allocated));
+        }
+        print(log, info, String.format("  classes: %d, operations: %d, models: %d", classes, operations, models));
+    }
+
+    private static void print(Log log, boolean info, String line) {
+        if (info) {
+            log.info(line);
+        } else {
+            log.debug(line);
+        }
+    }
+
+    /**
+     * Writes the metrics of the apiSources as a JSON array of {@link #toMap()} trees.
+     */
+    static void write(List<GenerationMetrics> metrics, File file) throws IOException {
+        List<Map<String, Object>> maps = new ArrayList<Map<String, Object>>();
+        for (GenerationMetrics sourceMetrics : metrics) {
+            maps.add(sourceMetrics.toMap());
+        }
+        File dir = file.getParentFile();
+        if (dir != null) {
+            FileUtils.forceMkdir(dir);
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, maps);
+    }
+
+    /**
+     * @return the metrics as a tree of maps, for serialization
+     */
+    Map<String, Object> toMap() {
+        Map<String, Object> phaseMaps = new LinkedHashMap<String, Object>();
+        for (Map.Entry<String, long[]> entry : phases.entrySet()) {
+            Map<String, Object> phaseMap = new LinkedHashMap<String, Object>();
+            phaseMap.put("millis", entry.getValue()[0]);
+            phaseMap.put("allocatedBytes", entry.getValue()[1]);
+            phaseMap.put("callingThreadOnly", callingThreadOnlyPhases.contains(entry.getKey()));
+            phaseMaps.put(entry.getKey(), phaseMap);
+        }
+        Map<String, Object> map = new LinkedHashMap<String, Object>();
+        map.put("apiSource", sourceIndex);
+        map.put("phases", phaseMaps);
+        map.put("classes", classes);
+        map.put("operations", operations);
+        map.put("models", models);
+        return map;
+    }
+}
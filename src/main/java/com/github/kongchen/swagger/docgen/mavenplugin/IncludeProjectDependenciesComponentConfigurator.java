@@ -14,7 +14,9 @@ import java.io.File;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * A custom ComponentConfigurator which adds the project's runtime classpath elements
@@ -50,10 +52,17 @@ public class IncludeProjectDependenciesComponentConfigurator extends AbstractCom
             throw new ComponentConfigurationException("There was a problem evaluating: ${project.compileClasspathElements}", e);
         }
 
-        // Add the project dependencies to the ClassRealm
+        // Add the project dependencies to the ClassRealm, once: the realm outlives the build in a
+        // long-lived JVM and is configured again for every execution
+        Set<String> constituents = new HashSet<String>();
+        for (URL constituent : containerRealm.getConstituents()) {
+            constituents.add(constituent.toExternalForm());
+        }
         final URL[] urls = buildURLs(compileClasspathElements);
         for (URL url : urls) {
-            containerRealm.addConstituent(url);
+            if (constituents.add(url.toExternalForm())) {
+                containerRealm.addConstituent(url);
+            }
         }
     }
 
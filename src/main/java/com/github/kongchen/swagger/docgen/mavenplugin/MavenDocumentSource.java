@@ -8,6 +8,8 @@ import com.github.kongchen.swagger.docgen.GenerateException;
 import com.github.kongchen.swagger.docgen.reader.ClassSwaggerReader;
 import com.github.kongchen.swagger.docgen.reader.JaxrsReader;
 
+import io.swagger.annotations.SwaggerDefinition;
+
 /**
  * @author chekong
  *         05/13/2013
@@ -23,12 +25,17 @@ public class MavenDocumentSource extends AbstractDocumentSource {
 
     protected ClassSwaggerReader resolveApiReader() throws GenerateException {
         String customReaderClassName = apiSource.getSwaggerApiReader();
+        ClassSwaggerReader reader;
         if (customReaderClassName == null) {
-            JaxrsReader reader = new JaxrsReader(swagger, LOG);
-            reader.setTypesToSkip(this.typesToSkip);
-            return reader;
+            JaxrsReader jaxrsReader = new JaxrsReader(swagger, LOG);
+            jaxrsReader.setTypesToSkip(this.typesToSkip);
+            reader = jaxrsReader;
         } else {
-            return getCustomApiReader(customReaderClassName);
+            reader = getCustomApiReader(customReaderClassName);
+        }
+        if (reader instanceof JaxrsReader) {
+            ((JaxrsReader) reader).setSwaggerDefinitionClasses(apiSource.getValidClasses(SwaggerDefinition.class));
         }
+        return reader;
     }
 }
@@ -0,0 +1,154 @@
+package com.github.kongchen.swagger.docgen.mavenplugin;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.maven.artifact.DependencyResolutionRequiredException;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+/**
+ * Generates the documents like the <code>generate</code> goal, then keeps watching the class directories
+ * of the compile classpath and generates the documents again each time class files change, until the
+ * build is interrupted.
+ * <p>
+ * The changed classes are loaded again through a fresh class loader for each generation, while the
+ * dependencies, the plugin itself and the resolved models of the unchanged classes (see
+ * <code>modelCache</code>, always on for this goal) are kept from one generation to the next.
+ */
+@Mojo(name = "watch", configurator = "include-project-dependencies",
+        requiresDependencyResolution = ResolutionScope.COMPILE_PLUS_RUNTIME)
+public class WatchMojo extends ApiDocumentMojo {
+
+    /**
+     * Milliseconds between two checks of the class directories. Changes are picked up once the class
+     * files did not change during one interval, so that a compilation in progress is not read.
+     */
+    @Parameter(property = "swagger.watchInterval", defaultValue = "500")
+    private long watchInterval = 500;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException {
+        if (getProject() == null) {
+            throw new MojoExecutionException("The watch goal requires a project");
+        }
+        List<File> directories;
+        try {
+            directories = getClassDirectories();
+        } catch (DependencyResolutionRequiredException e) {
+            throw new MojoExecutionException(e.getMessage(), e);
+        }
+
+        Map<String, String> snapshot = snapshot(directories);
+        generate(directories);
+        getLog().info("Watching " + directories + " for class changes, interrupt the build to stop.");
+        try {
+            while (true) {
+                Thread.sleep(watchInterval);
+                Map<String, String> current = snapshot(directories);
+                if (current.equals(snapshot)) {
+                    continue;
+                }
+                do {
+                    snapshot = current;
+                    Thread.sleep(watchInterval);
+                    current = snapshot(directories);
+                } while (!current.equals(snapshot));
+
+                long start = System.currentTimeMillis();
+                try {
+                    generate(directories);
+                    getLog().info("Swagger documents generated again in " + (System.currentTimeMillis() - start) + " ms");
+                } catch (MojoFailureException e) {
+                    getLog().error(e.getMessage(), e);
+                } catch (MojoExecutionException e) {
+                    getLog().error(e.getMessage(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    boolean isModelCacheEnabled() {
+        return true;
+    }
+
+    @Override
+    boolean isAttachingArtifacts() {
+        return false;
+    }
+
+    /**
+     * Generates the documents with the classes of the class directories as they are now.
+     */
+    private void generate(List<File> directories) throws MojoExecutionException, MojoFailureException {
+        Thread thread = Thread.currentThread();
+        ClassLoader previousClassLoader = thread.getContextClassLoader();
+        ClassLoader parent = previousClassLoader != null ? previousClassLoader : WatchMojo.class.getClassLoader();
+        thread.setContextClassLoader(new ChildFirstClassLoader(toUrls(directories), parent));
+        try {
+            super.execute();
+        } finally {
+            thread.setContextClassLoader(previousClassLoader);
+        }
+    }
+
+    private List<File> getClassDirectories() throws DependencyResolutionRequiredException {
+        List<File> directories = new ArrayList<File>();
+        //noinspection unchecked
+        for (String element : (List<String>) getProject().getCompileClasspathElements()) {
+            File file = new File(element);
+            if (file.isDirectory()) {
+                directories.add(file);
+            }
+        }
+        return directories;
+    }
+
+    private static URL[] toUrls(List<File> directories) throws MojoExecutionException {
+        URL[] urls = new URL[directories.size()];
+        for (int i = 0; i < urls.length; i++) {
+            try {
+                urls[i] = directories.get(i).toURI().toURL();
+            } catch (MalformedURLException e) {
+                throw new MojoExecutionException(e.getMessage(), e);
+            }
+        }
+        return urls;
+    }
+
+    /**
+     * Records the size and modification time of every class file of the directories.
+     */
+    private static Map<String, String> snapshot(List<File> directories) {
+        Map<String, String> snapshot = new TreeMap<String, String>();
+        for (File directory : directories) {
+            snapshot(directory, snapshot);
+        }
+        return snapshot;
+    }
+
+    private static void snapshot(File dir, Map<String, String> snapshot) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            if (file.isDirectory()) {
+                snapshot(file, snapshot);
+            } else if (file.getName().endsWith(".class")) {
+                snapshot.put(file.getPath(), file.length() + "@" + file.lastModified());
+            }
+        }
+    }
+}
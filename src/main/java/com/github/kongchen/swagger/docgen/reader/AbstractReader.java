@@ -5,14 +5,25 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.ws.rs.BeanParam;
 import javax.ws.rs.FormParam;
@@ -31,6 +42,8 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RequestPart;
 
+import com.github.kongchen.swagger.docgen.GenerateException;
+import com.github.kongchen.swagger.docgen.Utils;
 import com.sun.jersey.api.core.InjectParam;
 
 import io.swagger.annotations.Api;
@@ -48,6 +61,7 @@ import io.swagger.annotations.ResponseHeader;
 import io.swagger.converter.ModelConverters;
 import io.swagger.jaxrs.ext.SwaggerExtension;
 import io.swagger.jaxrs.ext.SwaggerExtensions;
+import io.swagger.models.HttpMethod;
 import io.swagger.models.Model;
 import io.swagger.models.Operation;
 import io.swagger.models.Path;
@@ -66,6 +80,7 @@ import io.swagger.models.properties.ArrayProperty;
 import io.swagger.models.properties.MapProperty;
 import io.swagger.models.properties.Property;
 import io.swagger.models.properties.RefProperty;
+import io.swagger.util.Json;
 import io.swagger.util.ParameterProcessor;
 import io.swagger.util.PathUtils;
 
@@ -73,9 +88,34 @@ import io.swagger.util.PathUtils;
  * @author chekong on 15/4/28.
  */
 public abstract class AbstractReader {
+    private static final Set<Class<?>> DEFAULT_PARAMETER_ANNOTATIONS = Collections.unmodifiableSet(identitySet(Arrays.<Class<?>>asList(
+            ModelAttribute.class,
+            BeanParam.class,
+            InjectParam.class,
+            ApiParam.class,
+            PathParam.class,
+            QueryParam.class,
+            HeaderParam.class,
+            FormParam.class,
+            RequestParam.class,
+            RequestBody.class,
+            PathVariable.class,
+            RequestHeader.class,
+            RequestPart.class,
+            CookieValue.class)));
+
     protected final Log LOG;
     protected Swagger swagger;
     private Set<Type> typesToSkip = new HashSet<Type>();
+    private final ConcurrentMap<Type, Map<String, Model>> modelCache;
+    private final ConcurrentMap<Type, Map<String, Model>> allModelCache;
+    private final AtomicInteger modelCacheHits;
+    private final AtomicInteger modelCacheMisses;
+    private final ConcurrentMap<Method, MethodDescriptor> methodDescriptors;
+    private PersistentModelCache persistentModelCache;
+    private final Map<String, Tag> tagRegistry = new HashMap<String, Tag>();
+    private Set<Class<?>> validParameterAnnotations = DEFAULT_PARAMETER_ANNOTATIONS;
+    private int parallelism = 1;
 
     public Set<Type> getTypesToSkip() {
         return typesToSkip;
@@ -94,11 +134,192 @@ public abstract class AbstractReader {
     }
 
     public AbstractReader(Swagger swagger, Log LOG) {
-        this.swagger = swagger;
+        this.swagger = withSortedMaps(swagger);
         this.LOG = LOG;
+        this.modelCache = new ConcurrentHashMap<Type, Map<String, Model>>();
+        this.allModelCache = new ConcurrentHashMap<Type, Map<String, Model>>();
+        this.modelCacheHits = new AtomicInteger();
+        this.modelCacheMisses = new AtomicInteger();
+        this.methodDescriptors = new ConcurrentHashMap<Method, MethodDescriptor>();
         updateExtensionChain();
     }
 
+    /**
+     * Creates a reader reading a part of the classes of <code>parent</code> into its own swagger, see
+     * {@link #mergeSwagger(Swagger)}. The reader shares the configuration and the model cache of its
+     * parent and leaves the extension chain untouched.
+     *
+     * @param parent  reader the classes are read for
+     * @param swagger swagger to read the classes into
+     */
+    protected AbstractReader(AbstractReader parent, Swagger swagger) {
+        this.swagger = withSortedMaps(swagger);
+        this.LOG = parent.LOG;
+        this.typesToSkip = parent.typesToSkip;
+        this.modelCache = parent.modelCache;
+        this.allModelCache = parent.allModelCache;
+        this.modelCacheHits = parent.modelCacheHits;
+        this.modelCacheMisses = parent.modelCacheMisses;
+        this.methodDescriptors = parent.methodDescriptors;
+        this.persistentModelCache = parent.persistentModelCache;
+        this.validParameterAnnotations = parent.validParameterAnnotations;
+    }
+
+    /**
+     * Turns the paths and definitions of a swagger into sorted maps. The readers add paths and models to
+     * sorted maps only (see {@link #addPath(String, Path)} and {@link #addModel(String, Model)}), so that
+     * they are kept in the order of the documents instead of being sorted once all classes are read. The
+     * definitions are created up front, since the {@link ParameterProcessor} of swagger-core adds models to
+     * them directly; {@link Utils#sortSwagger(Swagger)} drops them again if they stay empty.
+     *
+     * @param swagger swagger to read the classes into, may be <code>null</code>
+     * @return the given swagger
+     */
+    protected static Swagger withSortedMaps(Swagger swagger) {
+        if (swagger == null) {
+            return null;
+        }
+        if (swagger.getPaths() != null && !(swagger.getPaths() instanceof TreeMap)) {
+            swagger.setPaths(new TreeMap<String, Path>(swagger.getPaths()));
+        }
+        if (swagger.getDefinitions() == null) {
+            swagger.setDefinitions(new TreeMap<String, Model>());
+        } else if (!(swagger.getDefinitions() instanceof TreeMap)) {
+            swagger.setDefinitions(new TreeMap<String, Model>(swagger.getDefinitions()));
+        }
+        return swagger;
+    }
+
+    protected void addPath(String name, Path path) {
+        if (swagger.getPaths() == null) {
+            swagger.setPaths(new TreeMap<String, Path>());
+        }
+        swagger.path(name, path);
+    }
+
+    protected void addModel(String name, Model model) {
+        if (swagger.getDefinitions() == null) {
+            swagger.setDefinitions(new TreeMap<String, Model>());
+        }
+        swagger.model(name, model);
+    }
+
+    /**
+     * @return a new operation keeping its responses sorted by code
+     */
+    protected static Operation createOperation() {
+        Operation operation = new Operation();
+        operation.setResponses(new TreeMap<String, Response>());
+        return operation;
+    }
+
+    private static Set<Class<?>> identitySet(Collection<Class<?>> classes) {
+        Set<Class<?>> set = Collections.newSetFromMap(new IdentityHashMap<Class<?>, Boolean>());
+        set.addAll(classes);
+        return set;
+    }
+
+    /**
+     * Adds annotations marking method parameters as API parameters, besides the JAX-RS, Spring MVC and
+     * swagger ones. Parameters without any such annotation are ignored.
+     *
+     * @param parameterAnnotations additional parameter annotation types
+     */
+    public void addParameterAnnotations(Collection<Class<? extends Annotation>> parameterAnnotations) {
+        Set<Class<?>> annotations = identitySet(validParameterAnnotations);
+        annotations.addAll(parameterAnnotations);
+        validParameterAnnotations = Collections.unmodifiableSet(annotations);
+    }
+
+    public PersistentModelCache getPersistentModelCache() {
+        return persistentModelCache;
+    }
+
+    /**
+     * @param persistentModelCache cache the models are read from and written to besides the in-memory
+     *                             cache, <code>null</code> for none
+     */
+    public void setPersistentModelCache(PersistentModelCache persistentModelCache) {
+        this.persistentModelCache = persistentModelCache;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * @param parallelism number of threads reading classes, readers which cannot read concurrently ignore it
+     */
+    public void setParallelism(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * Runs the tasks with up to {@link #getParallelism()} threads.
+     *
+     * @return the results of the tasks, in the order of the tasks
+     * @throws GenerateException if a task failed with a checked exception
+     */
+    protected <T> List<T> invokeAll(List<Callable<T>> tasks) throws GenerateException {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(parallelism, tasks.size())));
+        try {
+            List<Future<T>> futures = executor.invokeAll(tasks);
+            List<T> results = new ArrayList<T>(futures.size());
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+            return results;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new GenerateException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            if (cause instanceof GenerateException) {
+                throw (GenerateException) cause;
+            }
+            throw new GenerateException(cause.getMessage(), cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Adds the tags, paths and models read by a partial reader. Merging the partial results in the order
+     * the classes are read in gives the same swagger as reading all the classes with this reader.
+     *
+     * @param partial swagger of a partial reader
+     */
+    protected void mergeSwagger(Swagger partial) {
+        if (partial.getTags() != null) {
+            for (Tag tag : partial.getTags()) {
+                registerTag(tag);
+            }
+        }
+        if (partial.getPaths() != null) {
+            for (Map.Entry<String, Path> entry : partial.getPaths().entrySet()) {
+                Path path = swagger.getPath(entry.getKey());
+                if (path == null) {
+                    addPath(entry.getKey(), entry.getValue());
+                } else {
+                    for (Map.Entry<HttpMethod, Operation> operation : entry.getValue().getOperationMap().entrySet()) {
+                        path.set(operation.getKey().name().toLowerCase(), operation.getValue());
+                    }
+                }
+            }
+        }
+        if (partial.getDefinitions() != null) {
+            for (Map.Entry<String, Model> entry : partial.getDefinitions().entrySet()) {
+                addModel(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
     /**
      * Method which allows sub-classes to modify the Swagger extension chain.
      */
@@ -106,6 +327,68 @@ public abstract class AbstractReader {
     	// default implementation does nothing
     }
 
+    /**
+     * Returns the models of a type as {@link ModelConverters#read(Type)} does. The result is cached per
+     * type for the lifetime of the reader, since the converter chain does not change while reading, and
+     * between builds if a {@link PersistentModelCache} is set.
+     */
+    protected Map<String, Model> readModels(Type type) {
+        return readModels(modelCache, type, false);
+    }
+
+    /**
+     * Returns the models of a type and of all the types it refers to, as {@link ModelConverters#readAll(Type)}
+     * does. The result is cached per type for the lifetime of the reader.
+     */
+    protected Map<String, Model> readAllModels(Type type) {
+        return readModels(allModelCache, type, true);
+    }
+
+    private Map<String, Model> readModels(ConcurrentMap<Type, Map<String, Model>> cache, Type type, boolean all) {
+        Map<String, Model> result = cache.get(type);
+        if (result != null) {
+            modelCacheHits.incrementAndGet();
+            return result;
+        }
+        modelCacheMisses.incrementAndGet();
+        if (persistentModelCache != null) {
+            result = persistentModelCache.get(type, all);
+            if (result == null) {
+                Set<Class<?>> enclosing = ModelDependencies.start();
+                Set<Class<?>> dependencies;
+                try {
+                    ModelDependencies.record(Json.mapper().constructType(type));
+                    result = all ? ModelConverters.getInstance().readAll(type) : ModelConverters.getInstance().read(type);
+                } finally {
+                    dependencies = ModelDependencies.stop(enclosing);
+                }
+                persistentModelCache.put(type, all, result, dependencies);
+            }
+        } else {
+            result = all ? ModelConverters.getInstance().readAll(type) : ModelConverters.getInstance().read(type);
+        }
+        result = Collections.unmodifiableMap(result);
+        Map<String, Model> previous = cache.putIfAbsent(type, result);
+        return previous != null ? previous : result;
+    }
+
+    /**
+     * Adds the models of a type and of all the types it refers to, to the swagger definitions.
+     */
+    protected void addAllModels(Type type) {
+        for (Map.Entry<String, Model> entry : readAllModels(type).entrySet()) {
+            addModel(entry.getKey(), entry.getValue());
+        }
+    }
+
+    protected void logModelCacheStatistics() {
+        LOG.debug("Model cache: " + modelCacheHits.get() + " hits, " + modelCacheMisses.get() + " misses");
+        if (persistentModelCache != null) {
+            LOG.debug("Persistent model cache: " + persistentModelCache.getHits() + " hits, "
+                    + persistentModelCache.getMisses() + " misses");
+        }
+    }
+
     protected List<SecurityRequirement> getSecurityRequirements(Api api) {
         List<SecurityRequirement> securities = new ArrayList<SecurityRequirement>();
         for (Authorization auth : api.authorizations()) {
@@ -211,7 +494,7 @@ public abstract class AbstractReader {
         Path path = swagger.getPath(operationPath);
         if (path == null) {
             path = new Path();
-            swagger.path(operationPath, path);
+            addPath(operationPath, path);
         }
         path.set(httpMethod, operation);
     }
@@ -223,7 +506,7 @@ public abstract class AbstractReader {
         for (String tag : apiOperation.tags()) {
             if (!tag.isEmpty()) {
                 operation.tag(tag);
-                swagger.tag(new Tag().name(tag));
+                registerTag(new Tag().name(tag));
             }
         }
     }
@@ -276,11 +559,54 @@ public abstract class AbstractReader {
             tagsMap.putAll(parentTags);
         }
         for (Tag tag : tagsMap.values()) {
-            swagger.tag(tag);
+            registerTag(tag);
         }
         return tagsMap;
     }
 
+    /**
+     * Adds a tag to the swagger unless a tag of the same name was registered before, in which case the
+     * registered tag takes the description of the given one if it has none.
+     *
+     * @param tag tag to register
+     */
+    protected void registerTag(Tag tag) {
+        if (tag == null || tag.getName() == null) {
+            return;
+        }
+        Tag registered = tagRegistry.get(tag.getName());
+        if (registered == null) {
+            tagRegistry.put(tag.getName(), tag);
+            if (swagger.getTags() == null) {
+                swagger.setTags(new ArrayList<Tag>());
+            }
+            swagger.getTags().add(tag);
+        } else if (registered.getDescription() == null && tag.getDescription() != null) {
+            registered.setDescription(tag.getDescription());
+        }
+    }
+
+    /**
+     * @return the tag registered under the given name, <code>null</code> if there is none
+     */
+    protected Tag getRegisteredTag(String name) {
+        return tagRegistry.get(name);
+    }
+
+    /**
+     * Sets the registered tags, sorted by name, as the tags of the swagger, once all classes are read. Tags
+     * added to the swagger directly are registered first.
+     */
+    protected void updateSwaggerTags() {
+        if (swagger.getTags() == null) {
+            return;
+        }
+        for (Tag tag : new ArrayList<Tag>(swagger.getTags())) {
+            registerTag(tag);
+        }
+        swagger.setTags(new ArrayList<Tag>(new TreeMap<String, Tag>(tagRegistry).values()));
+    }
+
     protected boolean isPrimitive(Type cls) {
         boolean isPrimitive = false;
 
@@ -344,33 +670,42 @@ public abstract class AbstractReader {
         // has at lease one annotation before processing it.  Also, check a
         // whitelist to make sure that the annotation of the parameter is
         // compatible with spring-maven-plugin
+        for (int i = 0; i < parameterAnnotations.size(); i++) {
+            if (validParameterAnnotations.contains(parameterAnnotations.get(i).annotationType())) {
+                return true;
+            }
+        }
+        return false;
+    }
 
-        List<Type> validParameterAnnotations = new ArrayList<Type>();
-        validParameterAnnotations.add(ModelAttribute.class);
-        validParameterAnnotations.add(BeanParam.class);
-        validParameterAnnotations.add(InjectParam.class);
-        validParameterAnnotations.add(ApiParam.class);
-        validParameterAnnotations.add(PathParam.class);
-        validParameterAnnotations.add(QueryParam.class);
-        validParameterAnnotations.add(HeaderParam.class);
-        validParameterAnnotations.add(FormParam.class);
-        validParameterAnnotations.add(RequestParam.class);
-        validParameterAnnotations.add(RequestBody.class);
-        validParameterAnnotations.add(PathVariable.class);
-        validParameterAnnotations.add(RequestHeader.class);
-        validParameterAnnotations.add(RequestPart.class);
-        validParameterAnnotations.add(CookieValue.class);
-
-
-        boolean hasValidAnnotation = false;
-        for (Annotation potentialAnnotation : parameterAnnotations) {
-            if (validParameterAnnotations.contains(potentialAnnotation.annotationType())) {
-                hasValidAnnotation = true;
-                break;
+    /**
+     * Returns the descriptor of a method, created by {@link #createMethodDescriptor(Method)} the first
+     * time the method is read.
+     */
+    protected MethodDescriptor getMethodDescriptor(Method method) {
+        MethodDescriptor descriptor = methodDescriptors.get(method);
+        if (descriptor == null) {
+            descriptor = createMethodDescriptor(method);
+            MethodDescriptor previous = methodDescriptors.putIfAbsent(method, descriptor);
+            if (previous != null) {
+                descriptor = previous;
             }
         }
+        return descriptor;
+    }
 
-        return hasValidAnnotation;
+    protected MethodDescriptor createMethodDescriptor(Method method) {
+        return new MethodDescriptor(method, method.getParameterAnnotations(), null);
+    }
+
+    /**
+     * Reads the parameters declared by a parameter of a method.
+     *
+     * @param descriptor descriptor of the method
+     * @param index      index of the parameter
+     */
+    protected List<Parameter> getParameters(MethodDescriptor descriptor, int index) {
+        return getParameters(descriptor.getParameterType(index), descriptor.getParameterAnnotations(index));
     }
 
     protected List<Parameter> getParameters(Type type, List<Annotation> annotations) {
@@ -421,7 +756,7 @@ public abstract class AbstractReader {
                     }
                 }
             } else {
-                Map<String, Model> models = ModelConverters.getInstance().read(responseClass);
+                Map<String, Model> models = readModels(responseClass);
                 for (String key : models.keySet()) {
                     final Property schema = new RefProperty().asDefault(key);
                     if (apiResponse.responseContainer().equals("List")) {
@@ -429,12 +764,9 @@ public abstract class AbstractReader {
                     } else {
                         response.schema(schema);
                     }
-                    swagger.model(key, models.get(key));
-                }
-                models = ModelConverters.getInstance().readAll(responseClass);
-                for (Map.Entry<String, Model> entry : models.entrySet()) {
-                    swagger.model(entry.getKey(), entry.getValue());
+                    addModel(key, models.get(key));
                 }
+                addAllModels(responseClass);
 
                 if (response.getSchema() == null) {
                     Map<String, Response> responses = operation.getResponses();
@@ -487,7 +819,7 @@ public abstract class AbstractReader {
         for (ApiImplicitParam param : implicitParams.value()) {
             Class<?> cls;
             try {
-                cls = Class.forName(param.dataType());
+                cls = Utils.loadClass(param.dataType());
             } catch (ClassNotFoundException e) {
                 cls = method.getDeclaringClass();
             }
@@ -11,6 +11,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
 
 import javax.ws.rs.Consumes;
 import javax.ws.rs.DELETE;
@@ -29,6 +30,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.annotation.AnnotationUtils;
 
+import com.github.kongchen.swagger.docgen.GenerateException;
+import com.github.kongchen.swagger.docgen.Utils;
 import com.github.kongchen.swagger.docgen.jaxrs.BeanParamInjectParamExtention;
 import com.github.kongchen.swagger.docgen.jaxrs.JaxrsParameterExtension;
 import com.github.kongchen.swagger.docgen.spring.SpringSwaggerExtension;
@@ -60,9 +63,24 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
     private static final String CLASS_NAME_PREFIX = "class ";
     private static final String INTERFACE_NAME_PREFIX = "interface ";
 
+    /**
+     * Tags declared through {@code @SwaggerDefinition}, keyed by name. Scanned once per reader and
+     * shared by every class it reads.
+     */
+    private Map<String, Tag> swaggerDefinitionTags;
+    private Set<Class<?>> swaggerDefinitionClasses;
+    private boolean readingClasses;
+
     public JaxrsReader(Swagger swagger, Log LOG) {
         super(swagger, LOG);
     }
+
+    /**
+     * Creates a partial reader, see {@link #createPartialReader()}.
+     */
+    protected JaxrsReader(JaxrsReader parent) {
+        super(parent, new Swagger());
+    }
     
     @Override
     protected void updateExtensionChain() {
@@ -75,23 +93,101 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
 
     @Override
     public Swagger read(Set<Class<?>> classes) {
-        for (Class<?> cls : classes) {
-            read(cls);
+        if (getParallelism() < 2 || classes.size() < 2 || isReadClassOverridden() || !readConcurrently(classes)) {
+            readingClasses = true;
+            try {
+                for (Class<?> cls : classes) {
+                    read(cls);
+                }
+            } finally {
+                readingClasses = false;
+            }
         }
+        updateSwaggerTags();
+        updateTagDescriptions();
+        logModelCacheStatistics();
         return swagger;
     }
 
+    /**
+     * @return <code>true</code> if a subclass changes the way a single class is read, in which case the
+     * classes are read through {@link #read(Class)} one after the other
+     */
+    private boolean isReadClassOverridden() {
+        try {
+            return getClass().getMethod("read", Class.class).getDeclaringClass() != JaxrsReader.class;
+        } catch (NoSuchMethodException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Reads every class with its own partial reader and merges the partial results in class order.
+     *
+     * @return <code>false</code> if this reader cannot read concurrently, nothing has been read then
+     */
+    private boolean readConcurrently(Set<Class<?>> classes) {
+        List<Callable<Swagger>> tasks = new ArrayList<Callable<Swagger>>();
+        for (final Class<?> cls : classes) {
+            final JaxrsReader reader = createPartialReader();
+            if (reader == null) {
+                return false;
+            }
+            tasks.add(new Callable<Swagger>() {
+                @Override
+                public Swagger call() {
+                    return reader.read(cls, "", null, false, new String[0], new String[0], new HashMap<String, Tag>(), new ArrayList<Parameter>());
+                }
+            });
+        }
+        try {
+            for (Swagger partial : invokeAll(tasks)) {
+                mergeSwagger(partial);
+            }
+        } catch (GenerateException e) {
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+        return true;
+    }
+
+    /**
+     * Creates a reader reading one class when classes are read concurrently. Subclasses overriding the way
+     * classes are read must override this method as well to read concurrently.
+     *
+     * @return a new partial reader, or <code>null</code> if this reader cannot read concurrently
+     */
+    protected JaxrsReader createPartialReader() {
+        return getClass() == JaxrsReader.class ? new JaxrsReader(this) : null;
+    }
+
     public Swagger getSwagger() {
         return swagger;
     }
 
+    /**
+     * Sets the {@code @SwaggerDefinition} annotated classes providing tag descriptions. When not set, the
+     * whole classpath is scanned for them.
+     *
+     * @param swaggerDefinitionClasses classes annotated with {@code @SwaggerDefinition}
+     */
+    public void setSwaggerDefinitionClasses(Set<Class<?>> swaggerDefinitionClasses) {
+        this.swaggerDefinitionClasses = swaggerDefinitionClasses;
+        this.swaggerDefinitionTags = null;
+    }
+
     public Swagger read(Class<?> cls) {
-        return read(cls, "", null, false, new String[0], new String[0], new HashMap<String, Tag>(), new ArrayList<Parameter>());
+        read(cls, "", null, false, new String[0], new String[0], new HashMap<String, Tag>(), new ArrayList<Parameter>());
+        if (!readingClasses) {
+            // read(Set) completes the tags once all its classes are read
+            updateSwaggerTags();
+            updateTagDescriptions();
+        }
+        return swagger;
     }
 
     protected Swagger read(Class<?> cls, String parentPath, String parentMethod, boolean readHidden, String[] parentConsumes, String[] parentProduces, Map<String, Tag> parentTags, List<Parameter> parentParameters) {
         if (swagger == null) {
-            swagger = new Swagger();
+            swagger = withSortedMaps(new Swagger());
         }
         Api api = AnnotationUtils.findAnnotation(cls, Api.class);
         Path apiPath = AnnotationUtils.findAnnotation(cls, Path.class);
@@ -152,15 +248,40 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
                 updateOperation(apiConsumes, apiProduces, tags, securities, operation);
                 updatePath(operationPath, httpMethod, operation);
             }
-            updateTagDescriptions();
         }
 
         return swagger;
     }
 
     private void updateTagDescriptions() {
-        HashMap<String, Tag> tags = new HashMap<String, Tag>();
-        for (Class<?> aClass: new Reflections("").getTypesAnnotatedWith(SwaggerDefinition.class)) {
+        for (Tag rightTag : getSwaggerDefinitionTags().values()) {
+            Tag tag = getRegisteredTag(rightTag.getName());
+            if (tag != null && rightTag.getDescription() != null) {
+                tag.setDescription(rightTag.getDescription());
+            }
+        }
+    }
+
+    private Map<String, Tag> getSwaggerDefinitionTags() {
+        if (swaggerDefinitionTags == null) {
+            swaggerDefinitionTags = scanSwaggerDefinitionTags();
+        }
+        return swaggerDefinitionTags;
+    }
+
+    /**
+     * Collects the tags declared by the {@code @SwaggerDefinition} annotated classes.
+     * Called at most once per reader.
+     *
+     * @return tags keyed by name
+     */
+    protected Map<String, Tag> scanSwaggerDefinitionTags() {
+        Set<Class<?>> definitionClasses = swaggerDefinitionClasses;
+        if (definitionClasses == null) {
+            definitionClasses = new Reflections("").getTypesAnnotatedWith(SwaggerDefinition.class);
+        }
+        Map<String, Tag> tags = new HashMap<String, Tag>();
+        for (Class<?> aClass: definitionClasses) {
             SwaggerDefinition swaggerDefinition = AnnotationUtils.findAnnotation(aClass, SwaggerDefinition.class);
 
             for (io.swagger.annotations.Tag tag : swaggerDefinition.tags()) {
@@ -171,14 +292,7 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
                 }
             }
         }
-        if (swagger.getTags() != null) {
-            for (Tag tag : swagger.getTags()) {
-                Tag rightTag = tags.get(tag.getName());
-                if (rightTag != null && rightTag.getDescription() != null) {
-                    tag.setDescription(rightTag.getDescription());
-                }
-            }
-        }
+        return tags;
     }
 
     private void handleSubResource(String[] apiConsumes, String httpMethod, String[] apiProduces, Map<String, Tag> tags, Method method, String operationPath, Operation operation) {
@@ -234,7 +348,7 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
 
 
     public Operation parseMethod(Method method) {
-        Operation operation = new Operation();
+        Operation operation = createOperation();
         ApiOperation apiOperation = AnnotationUtils.findAnnotation(method, ApiOperation.class);
 
         String operationId = method.getName();
@@ -313,7 +427,7 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
                             .headers(defaultResponseHeaders));
                 }
             } else if (!responseClassType.equals(Void.class) && !responseClassType.equals(void.class)) {
-                Map<String, Model> models = ModelConverters.getInstance().read(responseClassType);
+                Map<String, Model> models = readModels(responseClassType);
                 if (models.isEmpty()) {
                     Property p = ModelConverters.getInstance().readAsProperty(responseClassType);
                     operation.response(apiOperation.code(), new Response()
@@ -329,13 +443,10 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
                             .description("successful operation")
                             .schema(responseProperty)
                             .headers(defaultResponseHeaders));
-                    swagger.model(key, models.get(key));
+                    addModel(key, models.get(key));
                 }
             }
-            Map<String, Model> models = ModelConverters.getInstance().readAll(responseClassType);
-            for (Map.Entry<String, Model> entry : models.entrySet()) {
-                swagger.model(entry.getKey(), entry.getValue());
-            }
+            addAllModels(responseClassType);
         }
 
         Consumes consumes = AnnotationUtils.findAnnotation(method, Consumes.class);
@@ -368,22 +479,15 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
         }
 
         // process parameters
-        Class<?>[] parameterTypes = method.getParameterTypes();
-        Type[] genericParameterTypes = method.getGenericParameterTypes();
-        Annotation[][] paramAnnotations = findParamAnnotations(method);
-
-        // paramTypes = method.getParameterTypes
-        // genericParamTypes = method.getGenericParameterTypes
-        for (int i = 0; i < parameterTypes.length; i++) {
-            Type type = genericParameterTypes[i];
-            List<Annotation> annotations = Arrays.asList(paramAnnotations[i]);
-            List<Parameter> parameters = getParameters(type, annotations);
+        MethodDescriptor descriptor = getMethodDescriptor(method);
+        for (int i = 0; i < descriptor.getParameterCount(); i++) {
+            List<Parameter> parameters = getParameters(descriptor, i);
 
             for (Parameter parameter : parameters) {
                 operation.parameter(parameter);
             }
         }
-        if (operation.getResponses() == null) {
+        if (operation.getResponses().isEmpty()) {
             operation.defaultResponse(new Response().description("successful operation"));
         }
 
@@ -401,7 +505,7 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
 			typeToConvert = ((ParameterizedType) type).getRawType();
 		}
 		try {
-			return Class.forName(getClassName(typeToConvert));
+			return Utils.loadClass(getClassName(typeToConvert));
 		} catch (ClassNotFoundException e) {
 			throw new RuntimeException(e);
 		}
@@ -417,6 +521,14 @@ public class JaxrsReader extends AbstractReader implements ClassSwaggerReader {
 		return fullName;
 	}
 
+    /**
+     * Describes a method with the parameter annotations of the methods it overrides merged in.
+     */
+    @Override
+    protected MethodDescriptor createMethodDescriptor(Method method) {
+        return new MethodDescriptor(method, findParamAnnotations(method), null);
+    }
+
 	private Annotation[][] findParamAnnotations(Method method) {
 		Annotation[][] paramAnnotation = method.getParameterAnnotations();
 
@@ -0,0 +1,60 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Reflection data of a resource method needed to read its parameters, computed once per method and
+ * reader. Instances are immutable and may be shared between threads.
+ */
+public final class MethodDescriptor {
+    private final Method method;
+    private final Type[] genericParameterTypes;
+    private final List<List<Annotation>> parameterAnnotations;
+    private final String[] parameterNames;
+
+    /**
+     * @param method               described method
+     * @param parameterAnnotations annotations of each parameter, possibly including those declared on
+     *                             overridden methods
+     * @param parameterNames       names of the parameters, <code>null</code> if unknown
+     */
+    public MethodDescriptor(Method method, Annotation[][] parameterAnnotations, String[] parameterNames) {
+        this.method = method;
+        this.genericParameterTypes = method.getGenericParameterTypes();
+        List<List<Annotation>> annotations = new ArrayList<List<Annotation>>(parameterAnnotations.length);
+        for (Annotation[] parameterAnnotation : parameterAnnotations) {
+            annotations.add(Collections.unmodifiableList(Arrays.asList(parameterAnnotation.clone())));
+        }
+        this.parameterAnnotations = Collections.unmodifiableList(annotations);
+        this.parameterNames = parameterNames == null ? null : parameterNames.clone();
+    }
+
+    public Method getMethod() {
+        return method;
+    }
+
+    public int getParameterCount() {
+        return genericParameterTypes.length;
+    }
+
+    public Type getParameterType(int index) {
+        return genericParameterTypes[index];
+    }
+
+    public List<Annotation> getParameterAnnotations(int index) {
+        return parameterAnnotations.get(index);
+    }
+
+    /**
+     * @return the name of the parameter, <code>null</code> if unknown
+     */
+    public String getParameterName(int index) {
+        return parameterNames == null ? null : parameterNames[index];
+    }
+}
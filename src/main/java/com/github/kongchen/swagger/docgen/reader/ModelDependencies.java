@@ -0,0 +1,88 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.databind.JavaType;
+
+/**
+ * Records, per thread, the classes the model converter chain resolves while one model lookup runs, so
+ * that a persisted model can be invalidated when any class it was built from changes.
+ */
+final class ModelDependencies {
+    private static final ThreadLocal<Set<Class<?>>> RECORDED = new ThreadLocal<Set<Class<?>>>();
+
+    private ModelDependencies() {
+    }
+
+    /**
+     * Starts recording on the current thread.
+     *
+     * @return the classes recorded by an enclosing recording, to be passed to {@link #stop(Set)}
+     */
+    static Set<Class<?>> start() {
+        Set<Class<?>> enclosing = RECORDED.get();
+        RECORDED.set(new LinkedHashSet<Class<?>>());
+        return enclosing;
+    }
+
+    /**
+     * Stops recording on the current thread.
+     *
+     * @param enclosing value returned by the matching {@link #start()}
+     * @return the classes recorded since the matching {@link #start()}
+     */
+    static Set<Class<?>> stop(Set<Class<?>> enclosing) {
+        Set<Class<?>> recorded = RECORDED.get();
+        if (enclosing != null) {
+            enclosing.addAll(recorded);
+            RECORDED.set(enclosing);
+        } else {
+            RECORDED.remove();
+        }
+        return recorded;
+    }
+
+    /**
+     * @return <code>true</code> if a recording is running on the current thread
+     */
+    static boolean isRecording() {
+        return RECORDED.get() != null;
+    }
+
+    /**
+     * Records a type with its type parameters, super classes and interfaces, if a recording is running.
+     */
+    static void record(JavaType type) {
+        Set<Class<?>> recorded = RECORDED.get();
+        if (recorded != null && type != null) {
+            record(type, recorded);
+        }
+    }
+
+    private static void record(JavaType type, Set<Class<?>> recorded) {
+        record(type.getRawClass(), recorded);
+        for (int i = 0; i < type.containedTypeCount(); i++) {
+            JavaType contained = type.containedType(i);
+            if (contained != null) {
+                record(contained, recorded);
+            }
+        }
+        if (type.getContentType() != null) {
+            record(type.getContentType(), recorded);
+        }
+    }
+
+    private static void record(Class<?> cls, Set<Class<?>> recorded) {
+        while (cls != null && cls.isArray()) {
+            cls = cls.getComponentType();
+        }
+        if (cls == null || cls.isPrimitive() || cls == Object.class || !recorded.add(cls)) {
+            return;
+        }
+        record(cls.getSuperclass(), recorded);
+        for (Class<?> anInterface : cls.getInterfaces()) {
+            record(anInterface, recorded);
+        }
+    }
+}
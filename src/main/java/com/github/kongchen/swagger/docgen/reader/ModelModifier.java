@@ -3,6 +3,7 @@ package com.github.kongchen.swagger.docgen.reader;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.kongchen.swagger.docgen.GenerateException;
+import com.github.kongchen.swagger.docgen.Utils;
 import io.swagger.annotations.ApiModelProperty;
 import io.swagger.converter.ModelConverter;
 import io.swagger.converter.ModelConverterContext;
@@ -20,17 +21,29 @@ import java.lang.reflect.Field;
 import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * @author chekong on 15/5/19.
  */
 public class ModelModifier extends ModelResolver {
-    private Map<JavaType, JavaType> modelSubtitutes = new HashMap<JavaType, JavaType>();
+    private static final String PACKAGE_WILDCARD = ".*";
+    private static final Substitution NO_SUBSTITUTION = new Substitution(null, null);
+
+    private final Map<Class<?>, Substitution> substitutions = new HashMap<Class<?>, Substitution>();
+    private final Map<String, Substitution> prefixSubstitutions = new HashMap<String, Substitution>();
+    private final ConcurrentMap<Class<?>, Substitution> prefixMatches = new ConcurrentHashMap<Class<?>, Substitution>();
     private List<String> apiModelPropertyAccessExclusions = new ArrayList<String>();
+    private Set<String> excludedAccesses = Collections.emptySet();
+    private final ConcurrentMap<Class<?>, List<PropertyAccess>> propertyAccessCache = new ConcurrentHashMap<Class<?>, List<PropertyAccess>>();
 
     private static Logger LOGGER = LoggerFactory.getLogger(ModelModifier.class);
 
@@ -38,23 +51,45 @@ public class ModelModifier extends ModelResolver {
         super(mapper);
     }
 
+    /**
+     * Substitutes a model class. <code>fromClass</code> may also end with <code>.*</code>, in which case
+     * all the classes of that package and of its sub-packages are substituted, unless a substitute is
+     * declared for the class itself or for a longer package prefix.
+     */
     public void addModelSubstitute(String fromClass, String toClass) throws GenerateException {
+        if (fromClass.endsWith(PACKAGE_WILDCARD)) {
+            addPackageSubstitute(fromClass, toClass);
+            return;
+        }
         JavaType type = null;
         JavaType toType = null;
         try {
-            type = _mapper.constructType(Class.forName(fromClass));
+            type = _mapper.constructType(Utils.loadClass(fromClass));
         } catch (ClassNotFoundException e) {
             LOGGER.warn(String.format("Problem with loading class: %s. Mapping from: %s to: %s will be ignored.",
                     fromClass, fromClass, toClass));
         }
         try {
-            toType = _mapper.constructType(Class.forName(toClass));
+            toType = _mapper.constructType(Utils.loadClass(toClass));
         } catch (ClassNotFoundException e) {
             LOGGER.warn(String.format("Problem with loading class: %s. Mapping from: %s to: %s will be ignored.",
                     toClass, fromClass, toClass));
         }
         if(type != null && toType != null) {
-            modelSubtitutes.put(type, toType);
+            substitutions.put(type.getRawClass(), new Substitution(type, toType));
+        }
+    }
+
+    private void addPackageSubstitute(String fromPackage, String toClass) {
+        try {
+            JavaType toType = _mapper.constructType(Utils.loadClass(toClass));
+            // keep the dot, so that com.foo.* matches neither com.foobar.Bar nor com.foo itself
+            String prefix = fromPackage.substring(0, fromPackage.length() - PACKAGE_WILDCARD.length() + 1);
+            prefixSubstitutions.put(prefix, new Substitution(null, toType));
+            prefixMatches.clear();
+        } catch (ClassNotFoundException e) {
+            LOGGER.warn(String.format("Problem with loading class: %s. Mapping from: %s to: %s will be ignored.",
+                    toClass, fromPackage, toClass));
         }
     }
 
@@ -64,14 +99,23 @@ public class ModelModifier extends ModelResolver {
 
     public void setApiModelPropertyAccessExclusions(List<String> apiModelPropertyAccessExclusions) {
         this.apiModelPropertyAccessExclusions = apiModelPropertyAccessExclusions;
+        this.excludedAccesses = apiModelPropertyAccessExclusions == null
+                ? Collections.<String>emptySet()
+                : new HashSet<String>(apiModelPropertyAccessExclusions);
     }
 
     @Override
     public Property resolveProperty(Type type, ModelConverterContext context, Annotation[] annotations, Iterator<ModelConverter> chain) {
-    	// for method parameter types we get here Type but we need JavaType
-    	JavaType javaType = toJavaType(type);
-        if (modelSubtitutes.containsKey(javaType)) {
-            return super.resolveProperty(modelSubtitutes.get(javaType), context, annotations, chain);
+        JavaType substitute = null;
+        if (hasSubstitutes() || ModelDependencies.isRecording()) {
+            // for method parameter types we get here Type but we need JavaType
+            JavaType javaType = toJavaType(type);
+            ModelDependencies.record(javaType);
+            substitute = findSubstitute(javaType);
+        }
+        if (substitute != null) {
+            ModelDependencies.record(substitute);
+            return super.resolveProperty(substitute, context, annotations, chain);
         } else if (chain.hasNext()) {
             return chain.next().resolveProperty(type, context, annotations, chain);
         } else {
@@ -82,48 +126,103 @@ public class ModelModifier extends ModelResolver {
 
     @Override
     public Model resolve(Type type, ModelConverterContext context, Iterator<ModelConverter> chain) {
-    	// for method parameter types we get here Type but we need JavaType
-    	JavaType javaType = toJavaType(type);
-        if (modelSubtitutes.containsKey(javaType)) {
-            return super.resolve(modelSubtitutes.get(javaType), context, chain);
+        if (!hasSubstitutes()) {
+            return super.resolve(type, context, chain);
+        }
+        // for method parameter types we get here Type but we need JavaType
+        JavaType javaType = toJavaType(type);
+        JavaType substitute = findSubstitute(javaType);
+        if (substitute != null) {
+            ModelDependencies.record(javaType);
+            return super.resolve(substitute, context, chain);
         } else {
             return super.resolve(type, context, chain);
         }
     }
 
+    private boolean hasSubstitutes() {
+        return !substitutions.isEmpty() || !prefixSubstitutions.isEmpty();
+    }
+
+    /**
+     * @return the substitute of a type, <code>null</code> if it is not substituted
+     */
+    private JavaType findSubstitute(JavaType type) {
+        Class<?> rawClass = type.getRawClass();
+        Substitution substitution = substitutions.get(rawClass);
+        if (substitution == null && !prefixSubstitutions.isEmpty()) {
+            substitution = prefixMatches.get(rawClass);
+            if (substitution == null) {
+                substitution = findPrefixSubstitution(rawClass.getName());
+                prefixMatches.putIfAbsent(rawClass, substitution);
+            }
+        }
+        return substitution != null && substitution.matches(type) ? substitution.to : null;
+    }
+
+    /**
+     * @return the substitution of the longest package prefix of the class, {@link #NO_SUBSTITUTION} if none
+     */
+    private Substitution findPrefixSubstitution(String className) {
+        int end = className.lastIndexOf('.');
+        while (end > 0) {
+            Substitution substitution = prefixSubstitutions.get(className.substring(0, end + 1));
+            if (substitution != null) {
+                return substitution;
+            }
+            end = className.lastIndexOf('.', end - 1);
+        }
+        return NO_SUBSTITUTION;
+    }
+
     @Override
     public Model resolve(JavaType type, ModelConverterContext context, Iterator<ModelConverter> chain) {
+        ModelDependencies.record(type);
         Model model = super.resolve(type, context, chain);
 
         // If there are no @ApiModelPropety exclusions configured, return the untouched model
-        if (apiModelPropertyAccessExclusions == null || apiModelPropertyAccessExclusions.isEmpty()) {
+        if (excludedAccesses.isEmpty() || model == null || model.getProperties() == null) {
             return model;
         }
 
-        Class<?> cls = type.getRawClass();
-
-        for (Method method : cls.getDeclaredMethods()) {
-            ApiModelProperty apiModelPropertyAnnotation = AnnotationUtils.findAnnotation(method, ApiModelProperty.class);
-
-            processProperty(apiModelPropertyAnnotation, model);
-        }
-
-        for (Field field : FieldUtils.getAllFields(cls)) {
-            ApiModelProperty apiModelPropertyAnnotation = AnnotationUtils.getAnnotation(field, ApiModelProperty.class);
-
-            processProperty(apiModelPropertyAnnotation, model);
+        // Check to see if the value of @ApiModelProperty#access is one to exclude.
+        // If so, remove it from the previously-calculated model.
+        for (PropertyAccess propertyAccess : getPropertyAccesses(type.getRawClass())) {
+            if (excludedAccesses.contains(propertyAccess.access)) {
+                model.getProperties().remove(propertyAccess.name);
+            }
         }
 
         return model;
     }
 
-
     /**
-     * Remove property from {@link Model} for provided {@link ApiModelProperty}.
-     * @param apiModelPropertyAnnotation annotation
-     * @param model model with properties
+     * Returns the {@link ApiModelProperty} names and accesses of a class, read once per class: the
+     * annotations of the methods declared by the class and of all its fields, inherited ones included.
+     * Annotations without both a name and an access are left out.
      */
-    private void processProperty(ApiModelProperty apiModelPropertyAnnotation, Model model) {
+    private List<PropertyAccess> getPropertyAccesses(Class<?> cls) {
+        List<PropertyAccess> propertyAccesses = propertyAccessCache.get(cls);
+        if (propertyAccesses == null) {
+            propertyAccesses = new ArrayList<PropertyAccess>();
+            for (Method method : cls.getDeclaredMethods()) {
+                addPropertyAccess(AnnotationUtils.findAnnotation(method, ApiModelProperty.class), propertyAccesses);
+            }
+            for (Field field : FieldUtils.getAllFields(cls)) {
+                addPropertyAccess(AnnotationUtils.getAnnotation(field, ApiModelProperty.class), propertyAccesses);
+            }
+            propertyAccesses = propertyAccesses.isEmpty()
+                    ? Collections.<PropertyAccess>emptyList()
+                    : Collections.unmodifiableList(propertyAccesses);
+            List<PropertyAccess> previous = propertyAccessCache.putIfAbsent(cls, propertyAccesses);
+            if (previous != null) {
+                propertyAccesses = previous;
+            }
+        }
+        return propertyAccesses;
+    }
+
+    private static void addPropertyAccess(ApiModelProperty apiModelPropertyAnnotation, List<PropertyAccess> propertyAccesses) {
         if (apiModelPropertyAnnotation == null) {
             return;
         }
@@ -135,12 +234,7 @@ public class ModelModifier extends ModelResolver {
         if (apiModelPropertyAccess.isEmpty() || apiModelPropertyName.isEmpty()) {
             return;
         }
-
-        // Check to see if the value of @ApiModelProperty#access is one to exclude.
-        // If so, remove it from the previously-calculated model.
-        if (apiModelPropertyAccessExclusions.contains(apiModelPropertyAccess)) {
-            model.getProperties().remove(apiModelPropertyName);
-        }
+        propertyAccesses.add(new PropertyAccess(apiModelPropertyName, apiModelPropertyAccess));
     }
 
     /**
@@ -157,4 +251,32 @@ public class ModelModifier extends ModelResolver {
     	}
 		return typeToFind;
 	}
+
+    private static final class PropertyAccess {
+        private final String name;
+        private final String access;
+
+        PropertyAccess(String name, String access) {
+            this.name = name;
+            this.access = access;
+        }
+    }
+
+    private static final class Substitution {
+        private final JavaType from;
+        private final JavaType to;
+
+        /**
+         * @param from substituted type, <code>null</code> to substitute any type of the matched classes
+         * @param to   substitute
+         */
+        Substitution(JavaType from, JavaType to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        boolean matches(JavaType type) {
+            return to != null && (from == null || from.equals(type));
+        }
+    }
 }
@@ -0,0 +1,244 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
+import org.apache.maven.plugin.logging.Log;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.swagger.models.Model;
+import io.swagger.util.Json;
+
+/**
+ * Resolved models persisted between builds.
+ * <p>
+ * An entry holds the models of one type, as JSON, together with a content hash of the class file of
+ * every class resolved while building them. An entry is only returned as long as all those class files
+ * are unchanged, so a model is resolved again as soon as its class or any class it refers to changes.
+ * Classes of the bootstrap class path are assumed not to change. The entries are keyed by the type and
+ * a hash of the converter configuration, so several configurations can share one directory.
+ * <p>
+ * The cache never fails a build: an entry which cannot be read or written is resolved again.
+ */
+public class PersistentModelCache {
+    private static final String JDK = "jdk";
+    private static final TypeReference<Map<String, String>> DEPENDENCIES_TYPE = new TypeReference<Map<String, String>>() {
+    };
+    private static final TypeReference<LinkedHashMap<String, Model>> MODELS_TYPE = new TypeReference<LinkedHashMap<String, Model>>() {
+    };
+
+    private final File directory;
+    private final String configuration;
+    private final Log log;
+    private final ConcurrentMap<String, String> classHashes = new ConcurrentHashMap<String, String>();
+    private final AtomicInteger hits = new AtomicInteger();
+    private final AtomicInteger misses = new AtomicInteger();
+
+    /**
+     * @param directory     directory holding the entries, created when the first entry is written
+     * @param configuration hash of the settings affecting the resolved models
+     * @param log           log to report unreadable and unwritable entries to
+     */
+    public PersistentModelCache(File directory, String configuration, Log log) {
+        this.directory = directory;
+        this.configuration = configuration;
+        this.log = log;
+    }
+
+    /**
+     * Returns the persisted models of a type.
+     *
+     * @param type type the models were resolved for
+     * @param all  <code>true</code> for the models of the type and of all the types it refers to
+     * @return the models, <code>null</code> if there is no entry or if a class of the entry changed
+     */
+    public Map<String, Model> get(Type type, boolean all) {
+        String typeName = typeName(type);
+        File file = file(typeName, all);
+        if (!file.isFile()) {
+            misses.incrementAndGet();
+            return null;
+        }
+        try {
+            ObjectMapper mapper = Json.mapper();
+            JsonNode entry = mapper.readTree(file);
+            if (entry == null || !typeName.equals(entry.path("type").asText())
+                    || !entry.has("dependencies") || !entry.has("models")) {
+                misses.incrementAndGet();
+                return null;
+            }
+            Map<String, String> dependencies = mapper.convertValue(entry.get("dependencies"), DEPENDENCIES_TYPE);
+            for (Map.Entry<String, String> dependency : dependencies.entrySet()) {
+                if (!dependency.getValue().equals(hashClass(dependency.getKey()))) {
+                    misses.incrementAndGet();
+                    return null;
+                }
+            }
+            Map<String, Model> models = mapper.convertValue(entry.get("models"), MODELS_TYPE);
+            hits.incrementAndGet();
+            return models;
+        } catch (IOException e) {
+            log.debug("Cannot read model cache entry " + file + ": " + e.getMessage());
+        } catch (IllegalArgumentException e) {
+            log.debug("Cannot read model cache entry " + file + ": " + e.getMessage());
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Persists the models of a type. Nothing is written if the class file of a dependency cannot be found.
+     *
+     * @param type         type the models were resolved for
+     * @param all          <code>true</code> for the models of the type and of all the types it refers to
+     * @param models       resolved models
+     * @param dependencies classes resolved while building the models
+     */
+    public void put(Type type, boolean all, Map<String, Model> models, Collection<Class<?>> dependencies) {
+        String typeName = typeName(type);
+        Map<String, String> hashes = new TreeMap<String, String>();
+        for (Class<?> dependency : dependencies) {
+            String hash = hashClass(dependency.getName());
+            if (hash == null) {
+                return;
+            }
+            hashes.put(dependency.getName(), hash);
+        }
+
+        File file = file(typeName, all);
+        File tmp = null;
+        try {
+            ObjectMapper mapper = Json.mapper();
+            ObjectNode entry = mapper.createObjectNode();
+            entry.put("type", typeName);
+            entry.set("dependencies", mapper.valueToTree(hashes));
+            entry.set("models", mapper.valueToTree(models));
+
+            FileUtils.forceMkdir(directory);
+            tmp = File.createTempFile("." + file.getName() + "-", ".tmp", directory);
+            mapper.writeValue(tmp, entry);
+            // readers see either the previous entry or the new one, never a partly written file
+            if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file))) {
+                log.debug("Cannot write model cache entry " + file);
+            }
+        } catch (IOException e) {
+            log.debug("Cannot write model cache entry " + file + ": " + e.getMessage());
+        } finally {
+            if (tmp != null && tmp.exists() && !tmp.delete()) {
+                tmp.deleteOnExit();
+            }
+        }
+    }
+
+    public int getHits() {
+        return hits.get();
+    }
+
+    public int getMisses() {
+        return misses.get();
+    }
+
+    private static String typeName(Type type) {
+        return Json.mapper().getTypeFactory().constructType(type).toCanonical();
+    }
+
+    private File file(String typeName, boolean all) {
+        return new File(directory, hash(configuration + "|" + (all ? "all" : "one") + "|" + typeName) + ".json");
+    }
+
+    /**
+     * @return the hash of the class file of a class, {@link #JDK} for bootstrap classes, <code>null</code>
+     * if the class or its class file cannot be found
+     */
+    private String hashClass(String className) {
+        String hash = classHashes.get(className);
+        if (hash == null) {
+            hash = computeClassHash(className);
+            // an empty value remembers a class which cannot be found
+            classHashes.putIfAbsent(className, hash == null ? "" : hash);
+        }
+        return hash == null || hash.isEmpty() ? null : hash;
+    }
+
+    private static String computeClassHash(String className) {
+        Class<?> cls = loadClass(className);
+        if (cls == null) {
+            return null;
+        }
+        ClassLoader classLoader = cls.getClassLoader();
+        if (classLoader == null) {
+            return JDK;
+        }
+        InputStream in = classLoader.getResourceAsStream(className.replace('.', '/') + ".class");
+        if (in == null) {
+            return null;
+        }
+        try {
+            try {
+                return hash(IOUtils.toByteArray(in));
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static Class<?> loadClass(String className) {
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        if (contextClassLoader != null) {
+            try {
+                return Class.forName(className, false, contextClassLoader);
+            } catch (ClassNotFoundException e) {
+                // try the class loader of the plugin
+            } catch (LinkageError e) {
+                // try the class loader of the plugin
+            }
+        }
+        try {
+            return Class.forName(className, false, PersistentModelCache.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            return null;
+        } catch (LinkageError e) {
+            return null;
+        }
+    }
+
+    private static String hash(String value) {
+        try {
+            return hash(value.getBytes("UTF-8"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String hash(byte[] bytes) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-1").digest(bytes);
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
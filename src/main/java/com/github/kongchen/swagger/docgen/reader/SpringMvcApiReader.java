@@ -1,19 +1,25 @@
 package com.github.kongchen.swagger.docgen.reader;
 
 import java.lang.annotation.Annotation;
+import java.lang.reflect.AnnotatedElement;
 import java.lang.reflect.Method;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.apache.maven.plugin.logging.Log;
 import org.codehaus.plexus.util.StringUtils;
 import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
 import org.springframework.core.annotation.AnnotatedElementUtils;
 import org.springframework.core.annotation.AnnotationUtils;
 import org.springframework.http.ResponseEntity;
@@ -46,10 +52,65 @@ import io.swagger.models.properties.RefProperty;
 
 public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerReader {
     private static final ResponseContainerConverter RESPONSE_CONTAINER_CONVERTER = new ResponseContainerConverter();
+    private static final Object NO_ANNOTATION = new Object();
     private String resourcePath;
 
+    /**
+     * Merged annotations by annotated element and annotation type, {@link #NO_ANNOTATION} standing for an
+     * absent annotation. Synthesizing a merged annotation is expensive and the same lookups are done while
+     * analyzing the controllers, collecting the paths and parsing the operations.
+     */
+    private final ConcurrentMap<AnnotatedElement, ConcurrentMap<Class<?>, Object>> mergedAnnotations;
+
+    /**
+     * Discoverer of the parameter names, per reader since it keeps the classes it inspected.
+     */
+    private final ParameterNameDiscoverer parameterNameDiscoverer;
+
     public SpringMvcApiReader(Swagger swagger, Log log) {
         super(swagger, log);
+        mergedAnnotations = new ConcurrentHashMap<AnnotatedElement, ConcurrentMap<Class<?>, Object>>();
+        parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+    }
+
+    /**
+     * Creates a partial reader, see {@link #createPartialReader()}.
+     */
+    protected SpringMvcApiReader(SpringMvcApiReader parent) {
+        super(parent, new Swagger());
+        mergedAnnotations = parent.mergedAnnotations;
+        parameterNameDiscoverer = parent.parameterNameDiscoverer;
+    }
+
+    /**
+     * Describes a method with the parameter names found in its class file.
+     */
+    @Override
+    protected MethodDescriptor createMethodDescriptor(Method method) {
+        return new MethodDescriptor(method, method.getParameterAnnotations(), parameterNameDiscoverer.getParameterNames(method));
+    }
+
+    /**
+     * Cached {@link AnnotatedElementUtils#findMergedAnnotation(AnnotatedElement, Class)}.
+     */
+    protected <A extends Annotation> A findMergedAnnotation(AnnotatedElement element, Class<A> annotationType) {
+        ConcurrentMap<Class<?>, Object> annotations = mergedAnnotations.get(element);
+        if (annotations == null) {
+            annotations = new ConcurrentHashMap<Class<?>, Object>();
+            ConcurrentMap<Class<?>, Object> previous = mergedAnnotations.putIfAbsent(element, annotations);
+            if (previous != null) {
+                annotations = previous;
+            }
+        }
+        Object annotation = annotations.get(annotationType);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(element, annotationType);
+            if (annotation == null) {
+                annotation = NO_ANNOTATION;
+            }
+            annotations.put(annotationType, annotation);
+        }
+        return annotation == NO_ANNOTATION ? null : annotationType.cast(annotation);
     }
     
     @Override
@@ -65,17 +126,56 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         //get all methods from each controller & find their request mapping
         //create map - resource string (after first slash) as key, new SpringResource as value
         Map<String, SpringResource> resourceMap = generateResourceMap(classes);
-        for (String str : resourceMap.keySet()) {
-            SpringResource resource = resourceMap.get(str);
-            read(resource);
+        if (getParallelism() < 2 || resourceMap.size() < 2 || !readConcurrently(resourceMap.values())) {
+            for (String str : resourceMap.keySet()) {
+                SpringResource resource = resourceMap.get(str);
+                read(resource);
+            }
         }
+        updateSwaggerTags();
+        logModelCacheStatistics();
 
         return swagger;
     }
 
+    /**
+     * Reads every resource with its own partial reader and merges the partial results in resource order.
+     *
+     * @return <code>false</code> if this reader cannot read concurrently, nothing has been read then
+     */
+    private boolean readConcurrently(Collection<SpringResource> resources) throws GenerateException {
+        List<Callable<Swagger>> tasks = new ArrayList<Callable<Swagger>>();
+        for (final SpringResource resource : resources) {
+            final SpringMvcApiReader reader = createPartialReader();
+            if (reader == null) {
+                return false;
+            }
+            tasks.add(new Callable<Swagger>() {
+                @Override
+                public Swagger call() {
+                    return reader.read(resource);
+                }
+            });
+        }
+        for (Swagger partial : invokeAll(tasks)) {
+            mergeSwagger(partial);
+        }
+        return true;
+    }
+
+    /**
+     * Creates a reader reading one resource when resources are read concurrently. Subclasses overriding the
+     * way resources are read must override this method as well to read concurrently.
+     *
+     * @return a new partial reader, or <code>null</code> if this reader cannot read concurrently
+     */
+    protected SpringMvcApiReader createPartialReader() {
+        return getClass() == SpringMvcApiReader.class ? new SpringMvcApiReader(this) : null;
+    }
+
     public Swagger read(SpringResource resource) {
         if (swagger == null) {
-            swagger = new Swagger();
+            swagger = withSortedMaps(new Swagger());
         }
         List<Method> methods = resource.getMethods();
         Map<String, Tag> tags = new HashMap<String, Tag>();
@@ -84,7 +184,7 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
 
         // Add the description from the controller api
         Class<?> controller = resource.getControllerClass();
-        RequestMapping controllerRM = AnnotatedElementUtils.findMergedAnnotation(controller, RequestMapping.class);
+        RequestMapping controllerRM = findMergedAnnotation(controller, RequestMapping.class);
 
         String[] controllerProduces = new String[0];
         String[] controllerConsumes = new String[0];
@@ -94,7 +194,7 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         }
 
         if (controller.isAnnotationPresent(Api.class)) {
-            Api api = AnnotatedElementUtils.findMergedAnnotation(controller, Api.class);
+            Api api = findMergedAnnotation(controller, Api.class);
             if (!canReadApi(false, api)) {
                 return swagger;
             }
@@ -109,11 +209,11 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
 
         for (String path : apiMethodMap.keySet()) {
             for (Method method : apiMethodMap.get(path)) {
-                RequestMapping requestMapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+                RequestMapping requestMapping = findMergedAnnotation(method, RequestMapping.class);
                 if (requestMapping == null) {
                     continue;
                 }
-                ApiOperation apiOperation = AnnotatedElementUtils.findMergedAnnotation(method, ApiOperation.class);
+                ApiOperation apiOperation = findMergedAnnotation(method, ApiOperation.class);
                 if (apiOperation == null || apiOperation.hidden()) {
                     continue;
                 }
@@ -149,16 +249,16 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
     }
 
     private Operation parseMethod(Method method) {
-        Operation operation = new Operation();
+        Operation operation = createOperation();
 
-        RequestMapping requestMapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+        RequestMapping requestMapping = findMergedAnnotation(method, RequestMapping.class);
         Type responseClass = null;
         List<String> produces = new ArrayList<String>();
         List<String> consumes = new ArrayList<String>();
         String responseContainer = null;
         String operationId = method.getName();
 
-        ApiOperation apiOperation = AnnotatedElementUtils.findMergedAnnotation(method, ApiOperation.class);
+        ApiOperation apiOperation = findMergedAnnotation(method, ApiOperation.class);
 
         if (apiOperation.hidden()) {
             return null;
@@ -237,7 +337,7 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
                             .headers(defaultResponseHeaders));
                 }
             } else if (!responseClass.equals(Void.class) && !responseClass.equals(void.class)) {
-                Map<String, Model> models = ModelConverters.getInstance().read(responseClass);
+                Map<String, Model> models = readModels(responseClass);
                 if (models.isEmpty()) {
                     Property pp = ModelConverters.getInstance().readAsProperty(responseClass);
                     operation.response(apiOperation.code(), new Response()
@@ -251,13 +351,10 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
                             .description("successful operation")
                             .schema(responseProperty)
                             .headers(defaultResponseHeaders));
-                    swagger.model(key, models.get(key));
+                    addModel(key, models.get(key));
                 }
             }
-            Map<String, Model> models = ModelConverters.getInstance().readAll(responseClass);
-            for (Map.Entry<String, Model> entry : models.entrySet()) {
-                swagger.model(entry.getKey(), entry.getValue());
-            }
+            addAllModels(responseClass);
         }
 
         operation.operationId(operationId);
@@ -273,11 +370,11 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
             }
         }
 
-        ApiResponses responseAnnotation = AnnotatedElementUtils.findMergedAnnotation(method, ApiResponses.class);
+        ApiResponses responseAnnotation = findMergedAnnotation(method, ApiResponses.class);
         if (responseAnnotation != null) {
             updateApiResponse(operation, responseAnnotation);
         } else {
-            ResponseStatus responseStatus = AnnotatedElementUtils.findMergedAnnotation(method, ResponseStatus.class);
+            ResponseStatus responseStatus = findMergedAnnotation(method, ResponseStatus.class);
             if (responseStatus != null) {
                 operation.response(responseStatus.value().value(), new Response().description(responseStatus.reason()));
             }
@@ -295,27 +392,19 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         }
 
         // process parameters
-        Class[] parameterTypes = method.getParameterTypes();
-        Type[] genericParameterTypes = method.getGenericParameterTypes();
-        Annotation[][] paramAnnotations = method.getParameterAnnotations();
-        DefaultParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
-        String[] parameterNames = parameterNameDiscoverer.getParameterNames(method);
-        // paramTypes = method.getParameterTypes
-        // genericParamTypes = method.getGenericParameterTypes
-        for (int i = 0; i < parameterTypes.length; i++) {
-            Type type = genericParameterTypes[i];
-            List<Annotation> annotations = Arrays.asList(paramAnnotations[i]);
-            List<Parameter> parameters = getParameters(type, annotations);
+        MethodDescriptor descriptor = getMethodDescriptor(method);
+        for (int i = 0; i < descriptor.getParameterCount(); i++) {
+            List<Parameter> parameters = getParameters(descriptor, i);
 
             for (Parameter parameter : parameters) {
                 if(parameter.getName().isEmpty()) {
-                    parameter.setName(parameterNames[i]);
+                    parameter.setName(descriptor.getParameterName(i));
                 }
                 operation.parameter(parameter);
             }
         }
 
-        if (operation.getResponses() == null) {
+        if (operation.getResponses().isEmpty()) {
             operation.defaultResponse(new Response().description("successful operation"));
         }
 
@@ -332,7 +421,7 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
     private Map<String, List<Method>> collectApisByRequestMapping(List<Method> methods) {
         Map<String, List<Method>> apiMethodMap = new HashMap<String, List<Method>>();
         for (Method method : methods) {
-            RequestMapping requestMapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+            RequestMapping requestMapping = findMergedAnnotation(method, RequestMapping.class);
             if (requestMapping != null) {
                 String path;
                 if (requestMapping.value().length != 0) {
@@ -384,7 +473,7 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
         // Iterate over all value attributes of the class-level RequestMapping annotation
         for (String controllerRequestMappingValue : controllerRequestMappingValues) {
             for (Method method : controllerClazz.getMethods()) {
-                RequestMapping methodRequestMapping = AnnotatedElementUtils.findMergedAnnotation(method, RequestMapping.class);
+                RequestMapping methodRequestMapping = findMergedAnnotation(method, RequestMapping.class);
 
                 // Look for method-level @RequestMapping annotation
                 if (methodRequestMapping != null) {
@@ -434,23 +523,48 @@ public class SpringMvcApiReader extends AbstractReader implements ClassSwaggerRe
 
     protected Map<String, SpringResource> generateResourceMap(Set<Class<?>> validClasses) throws GenerateException {
         Map<String, SpringResource> resourceMap = new HashMap<String, SpringResource>();
-        for (Class<?> aClass : validClasses) {
-            RequestMapping requestMapping = AnnotationUtils.findAnnotation(aClass, RequestMapping.class);
-            //This try/catch block is to stop a bamboo build from failing due to NoClassDefFoundError
-            //This occurs when a class or method loaded by reflections contains a type that has no dependency
-            try {
-                resourceMap = analyzeController(aClass, resourceMap, "");
-                List<Method> mList = new ArrayList<Method>(Arrays.asList(aClass.getMethods()));
-                if (aClass.getSuperclass() != null) {
-                    mList.addAll(Arrays.asList(aClass.getSuperclass().getMethods()));
+        if (getParallelism() < 2 || validClasses.size() < 2) {
+            for (Class<?> aClass : validClasses) {
+                resourceMap = analyzeClass(aClass, resourceMap);
+            }
+            return resourceMap;
+        }
+
+        // each controller is analyzed into its own map, the maps are merged in class order
+        List<Callable<Map<String, SpringResource>>> tasks = new ArrayList<Callable<Map<String, SpringResource>>>();
+        for (final Class<?> aClass : validClasses) {
+            tasks.add(new Callable<Map<String, SpringResource>>() {
+                @Override
+                public Map<String, SpringResource> call() {
+                    return analyzeClass(aClass, new LinkedHashMap<String, SpringResource>());
+                }
+            });
+        }
+        for (Map<String, SpringResource> classResources : invokeAll(tasks)) {
+            for (Map.Entry<String, SpringResource> entry : classResources.entrySet()) {
+                SpringResource resource = resourceMap.get(entry.getKey());
+                if (resource == null) {
+                    resourceMap.put(entry.getKey(), entry.getValue());
+                } else {
+                    for (Method method : entry.getValue().getMethods()) {
+                        resource.addMethod(method);
+                    }
                 }
-            } catch (NoClassDefFoundError e) {
-                LOG.error(e.getMessage());
-                LOG.info(aClass.getName());
-                //exception occurs when a method type or annotation is not recognized by the plugin
             }
         }
+        return resourceMap;
+    }
 
+    private Map<String, SpringResource> analyzeClass(Class<?> aClass, Map<String, SpringResource> resourceMap) {
+        //This try/catch block is to stop a bamboo build from failing due to NoClassDefFoundError
+        //This occurs when a class or method loaded by reflections contains a type that has no dependency
+        try {
+            resourceMap = analyzeController(aClass, resourceMap, "");
+        } catch (NoClassDefFoundError e) {
+            LOG.error(e.getMessage());
+            LOG.info(aClass.getName());
+            //exception occurs when a method type or annotation is not recognized by the plugin
+        }
         return resourceMap;
     }
 
@@ -0,0 +1,372 @@
+package com.github.kongchen.swagger.docgen.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UnsupportedEncodingException;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.net.URL;
+import java.net.URLDecoder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+/**
+ * Type-annotation index over a set of package (or class name) prefixes.
+ * <p>
+ * The index is built from the class files themselves: the class files under the prefixes are parsed
+ * once, when the index is created, without loading any class. Only the types matching a query are
+ * loaded, so classes which are neither annotated nor inherit an annotation never reach the class loader.
+ * Every query, whatever the annotation and whether inherited annotations are honored or not, is
+ * answered from that scan and memoized, so several apiSources and document sources of one execution
+ * can share the same index.
+ */
+public class AnnotationIndex {
+    private static final String CLASS_SUFFIX = ".class";
+
+    private final List<String> prefixes;
+    private final Map<String, ClassFile> classFiles = new LinkedHashMap<String, ClassFile>();
+    private final Map<String, Set<String>> annotatedTypes = new HashMap<String, Set<String>>();
+    private final Map<String, Set<String>> subTypes = new HashMap<String, Set<String>>();
+    private final Map<String, Set<Class<?>>> queries = new HashMap<String, Set<Class<?>>>();
+
+    /**
+     * Indexes the classpath of the current class loaders.
+     *
+     * @param locations package or class name prefixes to index, {@code null} or empty for the whole classpath
+     */
+    public AnnotationIndex(Collection<String> locations) {
+        this(locations, null);
+    }
+
+    /**
+     * @param locations         package or class name prefixes to index, {@code null} or empty for the whole
+     *                          classpath
+     * @param classpathElements directories and jars to scan, {@code null} to scan the roots of the current
+     *                          class loaders
+     */
+    public AnnotationIndex(Collection<String> locations, Collection<String> classpathElements) {
+        Set<String> prefixes = new LinkedHashSet<String>();
+        if (locations == null || locations.isEmpty() || locations.contains("")) {
+            prefixes.add("");
+        } else {
+            prefixes.addAll(locations);
+        }
+        this.prefixes = new ArrayList<String>(prefixes);
+
+        Collection<File> roots = new LinkedHashSet<File>();
+        if (classpathElements != null) {
+            for (String element : classpathElements) {
+                roots.add(new File(element));
+            }
+        } else {
+            roots = findRoots();
+        }
+        for (File root : roots) {
+            try {
+                if (root.isDirectory()) {
+                    scanDirectory(root, "");
+                } else if (root.isFile() && !this.prefixes.contains("")) {
+                    // scanning every jar for the whole classpath is left out, as it always has been
+                    scanJar(root);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException("Could not scan " + root, e);
+            }
+        }
+        for (ClassFile classFile : classFiles.values()) {
+            for (String annotation : classFile.getAnnotations()) {
+                put(annotatedTypes, annotation, classFile.getName());
+            }
+            if (classFile.getSuperName() != null && !Object.class.getName().equals(classFile.getSuperName())) {
+                put(subTypes, classFile.getSuperName(), classFile.getName());
+            }
+            for (String anInterface : classFile.getInterfaces()) {
+                put(subTypes, anInterface, classFile.getName());
+            }
+        }
+    }
+
+    private static void put(Map<String, Set<String>> map, String key, String value) {
+        Set<String> values = map.get(key);
+        if (values == null) {
+            values = new LinkedHashSet<String>();
+            map.put(key, values);
+        }
+        values.add(value);
+    }
+
+    /**
+     * Finds the directories and jars holding the prefixes through the current class loaders.
+     */
+    private Collection<File> findRoots() {
+        Collection<File> roots = new LinkedHashSet<File>();
+        for (String prefix : prefixes) {
+            String resourceName = prefix.replace('.', '/');
+            int lastDot = prefix.lastIndexOf('.');
+            // a prefix may be a class name, in which case only its package exists as a resource
+            String packageName = lastDot < 0 ? "" : prefix.substring(0, lastDot).replace('.', '/');
+            for (ClassLoader classLoader : classLoaders()) {
+                addRoots(roots, classLoader, resourceName);
+                if (!packageName.equals(resourceName) && !packageName.isEmpty()) {
+                    addRoots(roots, classLoader, packageName);
+                }
+            }
+        }
+        return roots;
+    }
+
+    private static void addRoots(Collection<File> roots, ClassLoader classLoader, String resourceName) {
+        try {
+            Enumeration<URL> urls = classLoader.getResources(resourceName);
+            while (urls.hasMoreElements()) {
+                File root = toRoot(urls.nextElement(), resourceName);
+                if (root != null) {
+                    roots.add(root);
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not find " + resourceName, e);
+        }
+    }
+
+    private static File toRoot(URL url, String resourceName) {
+        String path;
+        try {
+            path = URLDecoder.decode(url.getPath(), "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new IllegalStateException(e);
+        }
+        if ("jar".equals(url.getProtocol())) {
+            int separator = path.indexOf("!/");
+            if (separator < 0 || !path.startsWith("file:")) {
+                return null;
+            }
+            return new File(path.substring("file:".length(), separator));
+        }
+        if (!"file".equals(url.getProtocol())) {
+            return null;
+        }
+        if (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        if (!resourceName.isEmpty() && path.endsWith(resourceName)) {
+            path = path.substring(0, path.length() - resourceName.length());
+        }
+        return new File(path);
+    }
+
+    private static List<ClassLoader> classLoaders() {
+        List<ClassLoader> classLoaders = new ArrayList<ClassLoader>();
+        ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        if (contextClassLoader != null) {
+            classLoaders.add(contextClassLoader);
+        }
+        ClassLoader classLoader = AnnotationIndex.class.getClassLoader();
+        if (classLoader != null && classLoader != contextClassLoader) {
+            classLoaders.add(classLoader);
+        }
+        return classLoaders;
+    }
+
+    private void scanDirectory(File dir, String packageName) throws IOException {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return;
+        }
+        for (File file : files) {
+            String name = packageName + file.getName();
+            if (file.isDirectory()) {
+                if (isPackageIndexed(name + ".")) {
+                    scanDirectory(file, name + ".");
+                }
+            } else if (name.endsWith(CLASS_SUFFIX) && isClassIndexed(name)) {
+                InputStream in = new FileInputStream(file);
+                try {
+                    add(ClassFile.read(in));
+                } finally {
+                    in.close();
+                }
+            }
+        }
+    }
+
+    private void scanJar(File file) throws IOException {
+        JarFile jar = new JarFile(file);
+        try {
+            Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                JarEntry entry = entries.nextElement();
+                String name = entry.getName().replace('/', '.');
+                if (!entry.isDirectory() && name.endsWith(CLASS_SUFFIX) && isClassIndexed(name)) {
+                    InputStream in = jar.getInputStream(entry);
+                    try {
+                        add(ClassFile.read(in));
+                    } finally {
+                        in.close();
+                    }
+                }
+            }
+        } finally {
+            jar.close();
+        }
+    }
+
+    private void add(ClassFile classFile) {
+        // the first occurrence on the classpath wins, as it does for the class loader
+        if (!classFiles.containsKey(classFile.getName())) {
+            classFiles.put(classFile.getName(), classFile);
+        }
+    }
+
+    private boolean isPackageIndexed(String packageName) {
+        for (String prefix : prefixes) {
+            if (prefix.startsWith(packageName) || packageName.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isClassIndexed(String fileName) {
+        if (fileName.endsWith("package-info.class") || fileName.endsWith("module-info.class")) {
+            return false;
+        }
+        String className = fileName.substring(0, fileName.length() - CLASS_SUFFIX.length());
+        for (String prefix : prefixes) {
+            if (className.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the indexed types annotated with the given annotation.
+     *
+     * @param annotation     annotation type to look for
+     * @param honorInherited if {@code true} only types carrying the annotation (or inheriting it through
+     *                       {@link java.lang.annotation.Inherited}) are returned, otherwise all subtypes of
+     *                       annotated types are returned as well
+     * @return matching types, never {@code null}
+     */
+    public synchronized Set<Class<?>> getTypesAnnotatedWith(Class<? extends Annotation> annotation, boolean honorInherited) {
+        String key = annotation.getName() + ":" + honorInherited;
+        Set<Class<?>> types = queries.get(key);
+        if (types == null) {
+            Set<String> annotated = get(annotatedTypes, annotation.getName());
+            Set<String> names = new LinkedHashSet<String>(annotated);
+            if (honorInherited) {
+                if (annotation.isAnnotationPresent(Inherited.class)) {
+                    for (String name : annotated) {
+                        ClassFile classFile = classFiles.get(name);
+                        if (classFile != null && !classFile.isInterface()) {
+                            names.addAll(getAll(subTypes, name));
+                        }
+                    }
+                }
+            } else {
+                // types annotated with an annotation which is itself annotated, and their subtypes
+                for (String name : annotated) {
+                    names.addAll(getAll(annotatedTypes, name));
+                }
+                for (String name : new ArrayList<String>(names)) {
+                    names.addAll(getAll(subTypes, name));
+                }
+            }
+            types = Collections.unmodifiableSet(forNames(names));
+            queries.put(key, types);
+        }
+        return types;
+    }
+
+    private static Set<String> get(Map<String, Set<String>> map, String key) {
+        Set<String> values = map.get(key);
+        return values != null ? values : Collections.<String>emptySet();
+    }
+
+    /**
+     * Follows the given relation transitively from the given key, the key itself excluded.
+     */
+    private static Set<String> getAll(Map<String, Set<String>> map, String key) {
+        Set<String> result = new LinkedHashSet<String>();
+        List<String> pending = new ArrayList<String>(get(map, key));
+        while (!pending.isEmpty()) {
+            String value = pending.remove(pending.size() - 1);
+            if (result.add(value)) {
+                pending.addAll(get(map, value));
+            }
+        }
+        return result;
+    }
+
+    private static Set<Class<?>> forNames(Collection<String> names) {
+        Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+        for (String name : names) {
+            Class<?> aClass = forName(name);
+            if (aClass != null) {
+                classes.add(aClass);
+            }
+        }
+        return classes;
+    }
+
+    private static Class<?> forName(String name) {
+        for (ClassLoader classLoader : classLoaders()) {
+            try {
+                return Class.forName(name, false, classLoader);
+            } catch (ClassNotFoundException e) {
+                // try the next class loader
+            } catch (LinkageError e) {
+                // a dependency of the class is missing, try the next class loader
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the indexed types annotated with the given annotation, limited to the given locations.
+     * Both the directly annotated types and the types inheriting from an annotated type are returned.
+     *
+     * @param annotation annotation type to look for
+     * @param locations  package or class name prefixes, {@code null} for no restriction
+     * @return matching types in a stable order, never {@code null}
+     */
+    public Set<Class<?>> getTypesAnnotatedWith(Class<? extends Annotation> annotation, List<String> locations) {
+        Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+        for (Class<?> aClass : getTypesAnnotatedWith(annotation, true)) {
+            if (isInLocations(aClass, locations)) {
+                classes.add(aClass);
+            }
+        }
+        for (Class<?> aClass : getTypesAnnotatedWith(annotation, false)) {
+            if (isInLocations(aClass, locations)) {
+                classes.add(aClass);
+            }
+        }
+        return classes;
+    }
+
+    private boolean isInLocations(Class<?> aClass, List<String> locations) {
+        if (locations == null) {
+            return true;
+        }
+        for (String location : locations) {
+            if (aClass.getName().startsWith(location)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,196 @@
+package com.github.kongchen.swagger.docgen.util;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The parts of a class file needed to index type annotations: the class name, its super types and
+ * its class-level annotations visible at runtime. The class file is read directly, the class itself is
+ * never loaded.
+ */
+class ClassFile {
+    private static final int ACC_INTERFACE = 0x0200;
+
+    private final String name;
+    private final String superName;
+    private final List<String> interfaces;
+    private final List<String> annotations;
+    private final boolean isInterface;
+
+    private ClassFile(String name, String superName, List<String> interfaces, List<String> annotations, boolean isInterface) {
+        this.name = name;
+        this.superName = superName;
+        this.interfaces = interfaces;
+        this.annotations = annotations;
+        this.isInterface = isInterface;
+    }
+
+    /**
+     * Parses a class file.
+     *
+     * @param stream class file content, not closed by this method
+     * @return the parsed class file
+     * @throws IOException if the stream cannot be read or is not a class file
+     */
+    static ClassFile read(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != 0xCAFEBABE) {
+            throw new IOException("Not a class file");
+        }
+        in.readUnsignedShort(); // minor version
+        in.readUnsignedShort(); // major version
+
+        int constantCount = in.readUnsignedShort();
+        String[] utf8 = new String[constantCount];
+        int[] classNameIndex = new int[constantCount];
+        for (int i = 1; i < constantCount; i++) {
+            int tag = in.readUnsignedByte();
+            switch (tag) {
+                case 1: // Utf8
+                    utf8[i] = in.readUTF();
+                    break;
+                case 7: // Class
+                    classNameIndex[i] = in.readUnsignedShort();
+                    break;
+                case 8: // String
+                case 16: // MethodType
+                case 19: // Module
+                case 20: // Package
+                    in.skipBytes(2);
+                    break;
+                case 15: // MethodHandle
+                    in.skipBytes(3);
+                    break;
+                case 3: // Integer
+                case 4: // Float
+                case 9: // Fieldref
+                case 10: // Methodref
+                case 11: // InterfaceMethodref
+                case 12: // NameAndType
+                case 17: // Dynamic
+                case 18: // InvokeDynamic
+                    in.skipBytes(4);
+                    break;
+                case 5: // Long
+                case 6: // Double
+                    in.skipBytes(8);
+                    i++;
+                    break;
+                default:
+                    throw new IOException("Unknown constant pool tag " + tag);
+            }
+        }
+
+        int access = in.readUnsignedShort();
+        String name = className(utf8, classNameIndex, in.readUnsignedShort());
+        String superName = className(utf8, classNameIndex, in.readUnsignedShort());
+        int interfaceCount = in.readUnsignedShort();
+        List<String> interfaces = new ArrayList<String>(interfaceCount);
+        for (int i = 0; i < interfaceCount; i++) {
+            interfaces.add(className(utf8, classNameIndex, in.readUnsignedShort()));
+        }
+
+        skipMembers(in); // fields
+        skipMembers(in); // methods
+
+        List<String> annotations = Collections.emptyList();
+        int attributeCount = in.readUnsignedShort();
+        for (int i = 0; i < attributeCount; i++) {
+            String attributeName = utf8[in.readUnsignedShort()];
+            int length = in.readInt();
+            // annotations retained in the class file only are never present on the loaded class
+            if ("RuntimeVisibleAnnotations".equals(attributeName)) {
+                if (annotations.isEmpty()) {
+                    annotations = new ArrayList<String>();
+                }
+                int annotationCount = in.readUnsignedShort();
+                for (int j = 0; j < annotationCount; j++) {
+                    annotations.add(readAnnotation(in, utf8));
+                }
+            } else {
+                in.skipBytes(length);
+            }
+        }
+
+        return new ClassFile(name, superName, interfaces, annotations, (access & ACC_INTERFACE) != 0);
+    }
+
+    private static String className(String[] utf8, int[] classNameIndex, int index) {
+        if (index == 0) {
+            return null;
+        }
+        return utf8[classNameIndex[index]].replace('/', '.');
+    }
+
+    private static void skipMembers(DataInputStream in) throws IOException {
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            in.skipBytes(6); // access flags, name, descriptor
+            int attributeCount = in.readUnsignedShort();
+            for (int j = 0; j < attributeCount; j++) {
+                in.skipBytes(2);
+                in.skipBytes(in.readInt());
+            }
+        }
+    }
+
+    /**
+     * Reads an annotation structure and returns the name of its type.
+     */
+    private static String readAnnotation(DataInputStream in, String[] utf8) throws IOException {
+        String descriptor = utf8[in.readUnsignedShort()];
+        int pairCount = in.readUnsignedShort();
+        for (int i = 0; i < pairCount; i++) {
+            in.skipBytes(2);
+            skipElementValue(in, utf8);
+        }
+        // descriptor is of the form Lcom/example/Annotation;
+        return descriptor.substring(1, descriptor.length() - 1).replace('/', '.');
+    }
+
+    private static void skipElementValue(DataInputStream in, String[] utf8) throws IOException {
+        int tag = in.readUnsignedByte();
+        switch (tag) {
+            case 'e':
+                in.skipBytes(4);
+                break;
+            case '@':
+                readAnnotation(in, utf8);
+                break;
+            case '[':
+                int count = in.readUnsignedShort();
+                for (int i = 0; i < count; i++) {
+                    skipElementValue(in, utf8);
+                }
+                break;
+            default:
+                // const_value_index or class_info_index
+                in.skipBytes(2);
+                break;
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getSuperName() {
+        return superName;
+    }
+
+    List<String> getInterfaces() {
+        return interfaces;
+    }
+
+    List<String> getAnnotations() {
+        return annotations;
+    }
+
+    boolean isInterface() {
+        return isInterface;
+    }
+}
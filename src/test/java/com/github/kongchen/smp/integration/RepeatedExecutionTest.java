@@ -0,0 +1,66 @@
+package com.github.kongchen.smp.integration;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.maven.plugin.testing.AbstractMojoTestCase;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.github.kongchen.swagger.docgen.mavenplugin.ApiDocumentMojo;
+
+import io.swagger.converter.ModelConverter;
+import io.swagger.converter.ModelConverters;
+import io.swagger.jaxrs.ext.SwaggerExtension;
+import io.swagger.jaxrs.ext.SwaggerExtensions;
+
+/**
+ * Runs the plugin repeatedly in one JVM, as a build daemon or an IDE does, and checks that no execution
+ * leaves state behind. Slow, runs with <code>-Psoak</code> only.
+ */
+public class RepeatedExecutionTest extends AbstractMojoTestCase {
+    private static final int EXECUTIONS = 100;
+
+    private File swaggerOutputDir = new File(getBasedir(), "generated/swagger-ui");
+    private File testPom = new File(getBasedir(), "target/test-classes/plugin-config.xml");
+    private List<SwaggerExtension> extensions;
+
+    @Override
+    @BeforeMethod(alwaysRun = true)
+    protected void setUp() throws Exception {
+        extensions = new ArrayList<SwaggerExtension>(SwaggerExtensions.getExtensions());
+        super.setUp();
+    }
+
+    @Override
+    @AfterMethod(alwaysRun = true)
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        SwaggerExtensions.setExtensions(extensions);
+        FileUtils.deleteQuietly(swaggerOutputDir);
+    }
+
+    @Test(groups = "soak")
+    public void testRepeatedExecutionsLeaveNoState() throws Exception {
+        int converters = getConverters().size();
+        int extensionCount = SwaggerExtensions.getExtensions().size();
+
+        for (int i = 0; i < EXECUTIONS; i++) {
+            ApiDocumentMojo mojo = (ApiDocumentMojo) lookupMojo("generate", testPom);
+            mojo.execute();
+
+            Assert.assertEquals(getConverters().size(), converters, "converter chain after execution " + (i + 1));
+            Assert.assertEquals(SwaggerExtensions.getExtensions().size(), extensionCount, "extension chain after execution " + (i + 1));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<ModelConverter> getConverters() throws IllegalAccessException {
+        return (List<ModelConverter>) FieldUtils.readField(ModelConverters.getInstance(), "converters", true);
+    }
+}
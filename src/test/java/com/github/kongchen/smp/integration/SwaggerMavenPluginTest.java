@@ -27,9 +27,12 @@ import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
 
 import static com.github.kongchen.smp.integration.utils.TestUtils.YamlToJson;
 import static com.github.kongchen.smp.integration.utils.TestUtils.changeDescription;
@@ -264,6 +267,38 @@ public class SwaggerMavenPluginTest extends AbstractMojoTestCase {
         assertGeneratedSwaggerSpecJson("This is a sample.", "/expectedOutput/swagger.json", "swagger.json");
     }
 
+    @Test
+    public void testParallelGenerationMatchesSequentialGeneration() throws Exception {
+        Map<String, byte[]> sequential = executeMultipleApiSources(1);
+        Map<String, byte[]> parallel = executeMultipleApiSources(3);
+
+        Assert.assertEquals(parallel.keySet(), sequential.keySet());
+        for (String name : sequential.keySet()) {
+            Assert.assertTrue(Arrays.equals(parallel.get(name), sequential.get(name)), name + " differs");
+        }
+    }
+
+    private Map<String, byte[]> executeMultipleApiSources(int parallelism) throws Exception {
+        FileUtils.deleteDirectory(swaggerOutputDir);
+        File testPom = new File(getBasedir(), "src/test/resources/plugin-config-multiple-api-sources.xml");
+        mojo = (ApiDocumentMojo) lookupMojo("generate", testPom);
+        setVariableValueToObject(mojo, "parallelism", parallelism);
+        // each apiSource resolves different documents and writes them to files of its own
+        List<ApiSource> apiSources = mojo.getApiSources();
+        apiSources.get(0).setModelConverters(ImmutableList.of(PetIdToStringModelConverter.class.getName()));
+        apiSources.get(1).setBasePath("/v2");
+        for (int i = 0; i < apiSources.size(); i++) {
+            apiSources.get(i).setOutputPath(new File(swaggerOutputDir, "document-" + i + ".html").getPath());
+        }
+        mojo.execute();
+
+        Map<String, byte[]> outputs = new TreeMap<String, byte[]>();
+        for (File file : swaggerOutputDir.listFiles()) {
+            outputs.put(file.getName(), FileUtils.readFileToByteArray(file));
+        }
+        return outputs;
+    }
+
     private void assertGeneratedSwaggerSpecJson(String description, String expectedOutput, String generatedFileName) throws IOException {
         JsonNode actualJson = mapper.readTree(new File(swaggerOutputDir, generatedFileName));
         JsonNode expectJson = mapper.readTree(this.getClass().getResourceAsStream(expectedOutput));
@@ -0,0 +1,136 @@
+package com.github.kongchen.swagger.docgen.mavenplugin;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.swagger.models.Info;
+
+public class BuildStateTest {
+    private static final String ENVIRONMENT = "UTF-8|plugin.jar";
+
+    private File dir;
+
+    @BeforeMethod
+    public void setUp() throws Exception {
+        dir = File.createTempFile("build-state", "");
+        Assert.assertTrue(dir.delete());
+        FileUtils.forceMkdir(dir);
+    }
+
+    @AfterMethod
+    public void tearDown() {
+        FileUtils.deleteQuietly(dir);
+    }
+
+    @Test
+    public void testUnchangedBuildIsSkipped() throws Exception {
+        File classes = new File(dir, "classes");
+        FileUtils.writeStringToFile(new File(classes, "com/example/Pet.class"), "pet");
+        ApiSource apiSource = createApiSource(writeTemplates());
+
+        BuildState previous = saveAndLoad(BuildState.ofClasspath(classpath(classes)), apiSource);
+        BuildState current = BuildState.ofClasspath(classpath(classes));
+
+        Assert.assertTrue(current.hasSameClasses(previous));
+        Assert.assertEquals(BuildState.hashConfiguration(apiSource, ENVIRONMENT), previous.getConfiguration(0));
+    }
+
+    @Test
+    public void testChangedClassIsDetected() throws Exception {
+        File classes = new File(dir, "classes");
+        File classFile = new File(classes, "com/example/Pet.class");
+        FileUtils.writeStringToFile(classFile, "pet");
+        BuildState previous = BuildState.ofClasspath(classpath(classes));
+
+        FileUtils.writeStringToFile(classFile, "changed pet");
+
+        Assert.assertFalse(BuildState.ofClasspath(classpath(classes)).hasSameClasses(previous));
+    }
+
+    @Test
+    public void testChangedShadowedClassIsDetected() throws Exception {
+        File classes = new File(dir, "classes");
+        File otherClasses = new File(dir, "other-classes");
+        FileUtils.writeStringToFile(new File(classes, "com/example/Pet.class"), "pet");
+        File shadowed = new File(otherClasses, "com/example/Pet.class");
+        FileUtils.writeStringToFile(shadowed, "pet");
+        BuildState previous = BuildState.ofClasspath(classpath(classes, otherClasses));
+
+        FileUtils.writeStringToFile(shadowed, "changed pet");
+
+        Assert.assertFalse(BuildState.ofClasspath(classpath(classes, otherClasses)).hasSameClasses(previous));
+    }
+
+    @Test
+    public void testChangedConfigurationIsDetected() throws Exception {
+        ApiSource apiSource = createApiSource(writeTemplates());
+        String previous = BuildState.hashConfiguration(apiSource, ENVIRONMENT);
+
+        apiSource.setBasePath("/v2");
+
+        Assert.assertFalse(BuildState.hashConfiguration(apiSource, ENVIRONMENT).equals(previous));
+    }
+
+    @Test
+    public void testChangedTemplateIsDetected() throws Exception {
+        File template = writeTemplates();
+        ApiSource apiSource = createApiSource(template);
+        String previous = BuildState.hashConfiguration(apiSource, ENVIRONMENT);
+
+        FileUtils.writeStringToFile(template, "{{> partials/operation}} changed");
+
+        Assert.assertFalse(BuildState.hashConfiguration(apiSource, ENVIRONMENT).equals(previous));
+    }
+
+    @Test
+    public void testChangedPartialIsDetected() throws Exception {
+        ApiSource apiSource = createApiSource(writeTemplates());
+        String previous = BuildState.hashConfiguration(apiSource, ENVIRONMENT);
+
+        FileUtils.writeStringToFile(new File(dir, "templates/partials/operation.hbs"), "{{summary}} changed");
+
+        Assert.assertFalse(BuildState.hashConfiguration(apiSource, ENVIRONMENT).equals(previous));
+    }
+
+    private File writeTemplates() throws Exception {
+        File template = new File(dir, "templates/document.hbs");
+        FileUtils.writeStringToFile(template, "{{> partials/operation}}");
+        FileUtils.writeStringToFile(new File(dir, "templates/partials/operation.hbs"), "{{summary}}");
+        return template;
+    }
+
+    private BuildState saveAndLoad(BuildState state, ApiSource apiSource) throws Exception {
+        state.setConfiguration(0, BuildState.hashConfiguration(apiSource, ENVIRONMENT));
+        File stateFile = new File(dir, "state/build-state");
+        state.save(stateFile);
+        return BuildState.load(stateFile);
+    }
+
+    private static ApiSource createApiSource(File template) {
+        ApiSource apiSource = new ApiSource();
+        apiSource.setLocations(Collections.singletonList("com.example"));
+        apiSource.setBasePath("/v1");
+        Info info = new Info();
+        info.setTitle("Pets");
+        info.setVersion("1");
+        apiSource.setInfo(info);
+        apiSource.setTemplatePath(template.getAbsolutePath());
+        return apiSource;
+    }
+
+    private static List<String> classpath(File... directories) {
+        String[] elements = new String[directories.length];
+        for (int i = 0; i < directories.length; i++) {
+            elements[i] = directories[i].getAbsolutePath();
+        }
+        return Arrays.asList(elements);
+    }
+}
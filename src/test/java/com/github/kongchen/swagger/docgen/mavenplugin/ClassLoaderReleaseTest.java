@@ -0,0 +1,99 @@
+package com.github.kongchen.swagger.docgen.mavenplugin;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.testing.AbstractMojoTestCase;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import io.swagger.jaxrs.ext.SwaggerExtension;
+import io.swagger.jaxrs.ext.SwaggerExtensions;
+
+/**
+ * Runs executions with the sample classes loaded by a throwaway class loader, as the <code>watch</code>
+ * goal does for each pass, and checks that nothing the plugin keeps between executions holds on to them.
+ * Fills the heap, runs with <code>-Psoak</code> only.
+ */
+public class ClassLoaderReleaseTest extends AbstractMojoTestCase {
+    private File testClasses = new File(getBasedir(), "target/test-classes");
+    private File[] outputs = {
+            new File(getBasedir(), "generated/swagger-ui"),
+            new File(getBasedir(), "generated/document.html"),
+            new File(getBasedir(), "generated/swagger-ui-spring"),
+            new File(getBasedir(), "generated/document-spring.html")
+    };
+    private List<SwaggerExtension> extensions;
+
+    @Override
+    @BeforeMethod(alwaysRun = true)
+    protected void setUp() throws Exception {
+        extensions = new ArrayList<SwaggerExtension>(SwaggerExtensions.getExtensions());
+        super.setUp();
+    }
+
+    @Override
+    @AfterMethod(alwaysRun = true)
+    protected void tearDown() throws Exception {
+        super.tearDown();
+        SwaggerExtensions.setExtensions(extensions);
+        for (File output : outputs) {
+            FileUtils.deleteQuietly(output);
+        }
+    }
+
+    @Test(groups = "soak")
+    public void testJaxrsExecutionReleasesClassLoader() throws Exception {
+        WeakReference<ClassLoader> classLoader = executeWithThrowawayClassLoader("plugin-config.xml");
+        Assert.assertTrue(isCollected(classLoader), "class loader of the execution is still reachable");
+    }
+
+    @Test(groups = "soak")
+    public void testSpringMvcExecutionReleasesClassLoader() throws Exception {
+        WeakReference<ClassLoader> classLoader = executeWithThrowawayClassLoader("plugin-config-springmvc.xml");
+        Assert.assertTrue(isCollected(classLoader), "class loader of the execution is still reachable");
+    }
+
+    /**
+     * Executes the plugin with the sample classes loaded again by a new class loader, only referenced
+     * by the returned weak reference afterwards.
+     */
+    private WeakReference<ClassLoader> executeWithThrowawayClassLoader(String config) throws Exception {
+        Thread thread = Thread.currentThread();
+        ClassLoader previousClassLoader = thread.getContextClassLoader();
+        ClassLoader classLoader = new ChildFirstClassLoader(new URL[]{testClasses.toURI().toURL()}, previousClassLoader);
+        thread.setContextClassLoader(classLoader);
+        try {
+            ApiDocumentMojo mojo = (ApiDocumentMojo) lookupMojo("generate", new File(testClasses, config));
+            mojo.execute();
+        } finally {
+            thread.setContextClassLoader(previousClassLoader);
+        }
+        return new WeakReference<ClassLoader>(classLoader);
+    }
+
+    /**
+     * Fills the heap until the referent is collected. Soft references, such as those of the annotation
+     * caches of Spring, are cleared at the latest before an {@link OutOfMemoryError} is thrown, so the
+     * referent is left only if it is strongly reachable.
+     */
+    private static boolean isCollected(WeakReference<?> reference) {
+        List<byte[]> garbage = new ArrayList<byte[]>();
+        try {
+            while (reference.get() != null) {
+                garbage.add(new byte[1024 * 1024]);
+            }
+        } catch (OutOfMemoryError e) {
+            garbage.clear();
+        }
+        garbage = null;
+        System.gc();
+        return reference.get() == null;
+    }
+}
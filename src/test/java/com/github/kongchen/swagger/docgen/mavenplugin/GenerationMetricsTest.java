@@ -0,0 +1,80 @@
+package com.github.kongchen.swagger.docgen.mavenplugin;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+
+public class GenerationMetricsTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testToMap() throws Exception {
+        Map<String, Object> map = createMetrics(2).toMap();
+
+        Assert.assertEquals(map.get("apiSource"), 2);
+        Assert.assertEquals(map.get("classes"), 3);
+        Assert.assertEquals(map.get("operations"), 2);
+        Assert.assertEquals(map.get("models"), 1);
+
+        Map<String, Object> phases = (Map<String, Object>) map.get("phases");
+        Assert.assertEquals(phases.keySet(), new LinkedHashSet<String>(Arrays.asList("loadDocuments", "toSwaggerDocuments")));
+        Map<String, Object> loadDocuments = (Map<String, Object>) phases.get("loadDocuments");
+        Assert.assertTrue((Long) loadDocuments.get("millis") >= 0);
+        Assert.assertTrue(loadDocuments.containsKey("allocatedBytes"));
+        Assert.assertEquals(loadDocuments.get("callingThreadOnly"), false);
+        Assert.assertEquals(((Map<String, Object>) phases.get("toSwaggerDocuments")).get("callingThreadOnly"), true);
+    }
+
+    @Test
+    public void testWrite() throws Exception {
+        File dir = File.createTempFile("metrics", "");
+        Assert.assertTrue(dir.delete());
+        // the directory of the file is created as well
+        File file = new File(dir, "swagger-metrics.json");
+        try {
+            List<GenerationMetrics> metrics = Arrays.asList(createMetrics(1), createMetrics(2));
+            GenerationMetrics.write(metrics, file);
+
+            JsonNode json = new ObjectMapper().readTree(file);
+            Assert.assertTrue(json.isArray());
+            Assert.assertEquals(json.size(), 2);
+            Assert.assertEquals(json.get(0).get("apiSource").asInt(), 1);
+            Assert.assertEquals(json.get(1).get("apiSource").asInt(), 2);
+            JsonNode phase = json.get(1).get("phases").get("toSwaggerDocuments");
+            Assert.assertTrue(phase.get("millis").isIntegralNumber());
+            Assert.assertTrue(phase.get("allocatedBytes").isIntegralNumber());
+            Assert.assertTrue(phase.get("callingThreadOnly").asBoolean());
+            Assert.assertEquals(json.get(1).get("operations").asInt(), 2);
+        } finally {
+            FileUtils.deleteQuietly(dir);
+        }
+    }
+
+    private static GenerationMetrics createMetrics(int sourceIndex) {
+        GenerationMetrics metrics = new GenerationMetrics(sourceIndex);
+        metrics.start("loadDocuments");
+        metrics.stop();
+        metrics.start("toSwaggerDocuments", true);
+        metrics.stop();
+
+        Swagger swagger = new Swagger();
+        swagger.path("/pets", new Path().get(new Operation()).post(new Operation()));
+        swagger.model("Pet", new ModelImpl());
+        metrics.count(3, swagger);
+        return metrics;
+    }
+}
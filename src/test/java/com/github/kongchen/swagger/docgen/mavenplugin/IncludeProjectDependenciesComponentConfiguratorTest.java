@@ -0,0 +1,51 @@
+package com.github.kongchen.swagger.docgen.mavenplugin;
+
+import java.io.File;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.codehaus.classworlds.ClassRealm;
+import org.codehaus.classworlds.ClassWorld;
+import org.codehaus.plexus.component.configurator.expression.ExpressionEvaluator;
+import org.codehaus.plexus.configuration.xml.XmlPlexusConfiguration;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class IncludeProjectDependenciesComponentConfiguratorTest {
+
+    @Test
+    public void testConfiguringTwiceAddsEachElementOnce() throws Exception {
+        final List<String> classpathElements = Arrays.asList(
+                new File("target/classes").getAbsolutePath(),
+                new File("target/test-classes").getAbsolutePath());
+        ExpressionEvaluator expressionEvaluator = new ExpressionEvaluator() {
+            @Override
+            public Object evaluate(String expression) {
+                return classpathElements;
+            }
+
+            @Override
+            public File alignToBaseDirectory(File file) {
+                return file;
+            }
+        };
+        ClassRealm realm = new ClassWorld().newRealm("plugin");
+        IncludeProjectDependenciesComponentConfigurator configurator = new IncludeProjectDependenciesComponentConfigurator();
+
+        for (int i = 0; i < 2; i++) {
+            configurator.configureComponent(new Object(), new XmlPlexusConfiguration("configuration"),
+                    expressionEvaluator, realm, null);
+        }
+
+        URL[] constituents = realm.getConstituents();
+        Set<String> distinct = new HashSet<String>();
+        for (URL constituent : constituents) {
+            distinct.add(constituent.toExternalForm());
+        }
+        Assert.assertEquals(constituents.length, classpathElements.size());
+        Assert.assertEquals(distinct.size(), constituents.length);
+    }
+}
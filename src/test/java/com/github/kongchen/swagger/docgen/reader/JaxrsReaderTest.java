@@ -0,0 +1,126 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.maven.plugin.logging.Log;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.github.kongchen.swagger.docgen.Utils;
+import com.wordnik.jaxrs.MyResourceImpl;
+import com.wordnik.jaxrs.PetResource;
+import com.wordnik.jaxrs.PetStoreResource;
+import com.wordnik.jaxrs.UserResource;
+
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Swagger;
+import io.swagger.models.Tag;
+import io.swagger.util.Json;
+
+public class JaxrsReaderTest {
+
+    @Test
+    public void testSwaggerDefinitionTagsAreScannedOnce() throws Exception {
+        CountingJaxrsReader reader = new CountingJaxrsReader(new Swagger(), new SystemStreamLog());
+
+        Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+        classes.add(PetResource.class);
+        classes.add(PetStoreResource.class);
+        classes.add(UserResource.class);
+        Swagger swagger = reader.read(classes);
+        reader.read(UserResource.class);
+
+        Assert.assertEquals(reader.scans, 1);
+
+        Tag userTag = null;
+        for (Tag tag : swagger.getTags()) {
+            if ("user".equals(tag.getName())) {
+                userTag = tag;
+            }
+        }
+        Assert.assertNotNull(userTag);
+        Assert.assertEquals(userTag.getDescription(), "Operations about user");
+    }
+
+    @Test
+    public void testConcurrentReadEqualsSequentialRead() throws Exception {
+        Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+        classes.add(PetResource.class);
+        classes.add(PetStoreResource.class);
+        classes.add(UserResource.class);
+        classes.add(MyResourceImpl.class);
+
+        JaxrsReader sequentialReader = new JaxrsReader(new Swagger(), new SystemStreamLog());
+        String sequential = Json.pretty(sequentialReader.read(classes));
+
+        JaxrsReader concurrentReader = new JaxrsReader(new Swagger(), new SystemStreamLog());
+        concurrentReader.setParallelism(4);
+        String concurrent = Json.pretty(concurrentReader.read(classes));
+
+        Assert.assertEquals(concurrent, sequential);
+    }
+
+    @Test
+    public void testOverriddenReadClassIsCalledForEveryClass() throws Exception {
+        Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+        classes.add(PetResource.class);
+        classes.add(PetStoreResource.class);
+        classes.add(UserResource.class);
+
+        ClassRecordingJaxrsReader reader = new ClassRecordingJaxrsReader(new Swagger(), new SystemStreamLog());
+        reader.setParallelism(4);
+        reader.read(classes);
+
+        Assert.assertEquals(reader.classes, classes);
+    }
+
+    @Test
+    public void testReadBuildsSortedMaps() throws Exception {
+        Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+        classes.add(UserResource.class);
+        classes.add(PetStoreResource.class);
+        classes.add(PetResource.class);
+
+        Swagger swagger = new JaxrsReader(new Swagger(), new SystemStreamLog()).read(classes);
+
+        Assert.assertTrue(Utils.isSorted(swagger.getPaths()));
+        Assert.assertTrue(Utils.isSorted(swagger.getDefinitions()));
+        for (Path path : swagger.getPaths().values()) {
+            for (Operation operation : path.getOperations()) {
+                Assert.assertTrue(Utils.isSorted(operation.getResponses()), operation.getOperationId());
+            }
+        }
+    }
+
+    static class ClassRecordingJaxrsReader extends JaxrsReader {
+        final Set<Class<?>> classes = new LinkedHashSet<Class<?>>();
+
+        ClassRecordingJaxrsReader(Swagger swagger, Log LOG) {
+            super(swagger, LOG);
+        }
+
+        @Override
+        public Swagger read(Class<?> cls) {
+            classes.add(cls);
+            return super.read(cls);
+        }
+    }
+
+    static class CountingJaxrsReader extends JaxrsReader {
+        int scans;
+
+        CountingJaxrsReader(Swagger swagger, Log LOG) {
+            super(swagger, LOG);
+        }
+
+        @Override
+        protected Map<String, Tag> scanSwaggerDefinitionTags() {
+            scans++;
+            return super.scanSwaggerDefinitionTags();
+        }
+    }
+}
@@ -3,6 +3,8 @@ package com.github.kongchen.swagger.docgen.reader;
 import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.type.SimpleType;
+import com.wordnik.sample.model.PetId;
+import com.wordnik.sample.model.PetName;
 
 import org.testng.Assert;
 import org.testng.annotations.Test;
@@ -10,6 +12,7 @@ import org.testng.annotations.Test;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Type;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
@@ -20,6 +23,8 @@ import io.swagger.converter.ModelConverterContext;
 import io.swagger.converter.ModelConverterContextImpl;
 import io.swagger.models.ArrayModel;
 import io.swagger.models.Model;
+import io.swagger.models.properties.DateTimeProperty;
+import io.swagger.models.properties.LongProperty;
 import io.swagger.models.properties.Property;
 import io.swagger.models.properties.StringProperty;
 
@@ -56,6 +61,38 @@ public class ModelModifierTest {
         Assert.assertTrue(model.getProperties().containsKey("sample2"));
     }
 
+    @Test
+    public void testModelWithoutPropertiesIsLeftUntouched() throws Exception {
+        ModelModifier modelModifier = new ModelModifier(new ObjectMapper());
+        modelModifier.setApiModelPropertyAccessExclusions(Arrays.asList("public"));
+
+        ModelConverterContext context = new ModelConverterContextImpl(new ModelConverter() {
+            @Override
+            public Property resolveProperty(Type type, ModelConverterContext modelConverterContext, Annotation[] annotations, Iterator<ModelConverter> iterator) {
+                return null;
+            }
+
+            @Override
+            public Model resolve(Type type, ModelConverterContext modelConverterContext, Iterator<ModelConverter> iterator) {
+                return new ArrayModel();
+            }
+        });
+        Model model = modelModifier.resolve(SimpleType.constructUnsafe(B.class), context, null);
+        Assert.assertNull(model.getProperties());
+    }
+
+    @Test
+    public void testPackageSubstitution() throws Exception {
+        ModelModifier modelModifier = new ModelModifier(new ObjectMapper());
+        modelModifier.addModelSubstitute("com.wordnik.sample.model.*", "java.lang.String");
+        modelModifier.addModelSubstitute("com.wordnik.sample.model.PetId", "java.lang.Long");
+
+        ModelConverterContext context = new ModelConverterContextImpl(modelModifier);
+        Assert.assertTrue(context.resolveProperty(PetName.class, null) instanceof StringProperty);
+        Assert.assertTrue(context.resolveProperty(PetId.class, null) instanceof LongProperty);
+        Assert.assertTrue(context.resolveProperty(Date.class, null) instanceof DateTimeProperty);
+    }
+
     static class A {
 
         @ApiModelProperty(name = "sample1", access = "public")
@@ -0,0 +1,67 @@
+package com.github.kongchen.swagger.docgen.reader;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.plugin.logging.SystemStreamLog;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.wordnik.sample.model.Category;
+import com.wordnik.sample.model.Pet;
+import com.wordnik.sample.model.Tag;
+
+import io.swagger.converter.ModelConverters;
+import io.swagger.models.Model;
+import io.swagger.util.Json;
+
+public class PersistentModelCacheTest {
+    private File directory;
+
+    @BeforeMethod
+    public void createDirectory() throws Exception {
+        directory = File.createTempFile("swagger-cache", "");
+        FileUtils.forceDelete(directory);
+    }
+
+    @AfterMethod
+    public void deleteDirectory() throws Exception {
+        FileUtils.deleteDirectory(directory);
+    }
+
+    @Test
+    public void testEntryIsReusedByAnotherBuild() throws Exception {
+        Map<String, Model> models = ModelConverters.getInstance().readAll(Pet.class);
+        new PersistentModelCache(directory, "configuration", new SystemStreamLog())
+                .put(Pet.class, true, models, Arrays.<Class<?>>asList(Pet.class, Category.class, Tag.class));
+
+        PersistentModelCache cache = new PersistentModelCache(directory, "configuration", new SystemStreamLog());
+        Map<String, Model> cachedModels = cache.get(Pet.class, true);
+
+        Assert.assertNotNull(cachedModels);
+        Assert.assertEquals(Json.pretty(cachedModels), Json.pretty(models));
+        Assert.assertNull(cache.get(Pet.class, false));
+        Assert.assertNull(new PersistentModelCache(directory, "other", new SystemStreamLog()).get(Pet.class, true));
+    }
+
+    @Test
+    public void testEntryIsInvalidatedWhenADependencyChanges() throws Exception {
+        Map<String, Model> models = ModelConverters.getInstance().readAll(Pet.class);
+        new PersistentModelCache(directory, "configuration", new SystemStreamLog())
+                .put(Pet.class, true, models, Arrays.<Class<?>>asList(Pet.class, Category.class, Tag.class));
+
+        File[] entries = directory.listFiles();
+        Assert.assertNotNull(entries);
+        Assert.assertEquals(entries.length, 1);
+        ObjectNode entry = (ObjectNode) Json.mapper().readTree(entries[0]);
+        ((ObjectNode) entry.get("dependencies")).put(Category.class.getName(), "changed");
+        Json.mapper().writeValue(entries[0], entry);
+
+        Assert.assertNull(new PersistentModelCache(directory, "configuration", new SystemStreamLog()).get(Pet.class, true));
+    }
+}
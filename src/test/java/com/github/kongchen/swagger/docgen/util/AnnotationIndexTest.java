@@ -0,0 +1,175 @@
+package com.github.kongchen.swagger.docgen.util;
+
+import java.io.File;
+import java.lang.annotation.Annotation;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import javax.ws.rs.Path;
+
+import org.apache.commons.io.FileUtils;
+import org.reflections.Reflections;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import io.swagger.annotations.Api;
+import io.swagger.annotations.SwaggerDefinition;
+
+public class AnnotationIndexTest {
+    // the nested types of this test only
+    private static final String FIXTURES = AnnotationIndexTest.class.getName() + "$";
+
+    @Test
+    public void testInheritedAnnotationIsHonored() {
+        AnnotationIndex index = new AnnotationIndex(Collections.singletonList(FIXTURES));
+
+        Set<Class<?>> types = index.getTypesAnnotatedWith(InheritedMarker.class, true);
+
+        // an annotation of an interface is not inherited by its implementations
+        Assert.assertEquals(types, set(Base.class, Sub.class, SubSub.class, MarkedInterface.class));
+        for (Class<?> type : types) {
+            Assert.assertTrue(type.isAnnotationPresent(InheritedMarker.class), type.getName());
+        }
+    }
+
+    @Test
+    public void testNonInheritedAnnotationIsNotInherited() {
+        AnnotationIndex index = new AnnotationIndex(Collections.singletonList(FIXTURES));
+
+        Assert.assertEquals(index.getTypesAnnotatedWith(Marker.class, true), set(Base.class, Stereotype.class));
+    }
+
+    @Test
+    public void testSubtypesAreFollowedTransitively() {
+        AnnotationIndex index = new AnnotationIndex(Collections.singletonList(FIXTURES));
+
+        Assert.assertEquals(index.getTypesAnnotatedWith(InheritedMarker.class, false),
+                set(Base.class, Sub.class, SubSub.class, MarkedInterface.class, Implementation.class));
+    }
+
+    @Test
+    public void testMetaAnnotationsAreFollowed() {
+        AnnotationIndex index = new AnnotationIndex(Collections.singletonList(FIXTURES));
+
+        Assert.assertEquals(index.getTypesAnnotatedWith(Marker.class, false),
+                set(Base.class, Sub.class, SubSub.class, Stereotype.class, Stereotyped.class, StereotypedSub.class));
+    }
+
+    @Test
+    public void testSpringMetaAnnotationsAreFollowed() {
+        AnnotationIndex index = new AnnotationIndex(Arrays.asList(FIXTURES, RestController.class.getPackage().getName()));
+
+        // @RestController is annotated with @Controller
+        Set<Class<?>> types = index.getTypesAnnotatedWith(Controller.class, false);
+
+        Assert.assertTrue(types.contains(RestController.class));
+        Assert.assertTrue(types.contains(RestResource.class));
+    }
+
+    @Test
+    public void testClassRetainedAnnotationsAreIgnored() {
+        AnnotationIndex index = new AnnotationIndex(Collections.singletonList(FIXTURES));
+
+        Assert.assertTrue(index.getTypesAnnotatedWith(ClassRetained.class, true).isEmpty());
+        Assert.assertTrue(index.getTypesAnnotatedWith(ClassRetained.class, false).isEmpty());
+    }
+
+    @Test
+    public void testClassWhichCannotBeLoadedIsLeftOut() throws Exception {
+        File dir = File.createTempFile("annotation-index", "");
+        Assert.assertTrue(dir.delete());
+        try {
+            FileUtils.writeByteArrayToFile(new File(dir, "com/example/Missing.class"),
+                    ClassFileTest.createClassFile("com/example/Missing", Marker.class));
+            List<String> classpath = Arrays.asList(dir.getAbsolutePath(), new File("target/test-classes").getAbsolutePath());
+            AnnotationIndex index = new AnnotationIndex(Arrays.asList("com.example", FIXTURES), classpath);
+
+            Assert.assertEquals(index.getTypesAnnotatedWith(Marker.class, true), set(Base.class, Stereotype.class));
+        } finally {
+            FileUtils.deleteQuietly(dir);
+        }
+    }
+
+    @Test
+    public void testSameTypesAsReflections() {
+        List<String> locations = Arrays.asList("com.wordnik.jaxrs", "com.wordnik.springmvc", "com.wordnik.sample");
+        List<Class<? extends Annotation>> annotations = Arrays.<Class<? extends Annotation>>asList(
+                Api.class, SwaggerDefinition.class, Path.class, RequestMapping.class, RestController.class);
+
+        for (String location : locations) {
+            AnnotationIndex index = new AnnotationIndex(Collections.singletonList(location));
+            Reflections reflections = new Reflections(location);
+            for (Class<? extends Annotation> annotation : annotations) {
+                for (boolean honorInherited : new boolean[]{true, false}) {
+                    Assert.assertEquals(index.getTypesAnnotatedWith(annotation, honorInherited),
+                            reflections.getTypesAnnotatedWith(annotation, honorInherited),
+                            location + " " + annotation.getSimpleName() + " " + honorInherited);
+                }
+            }
+        }
+    }
+
+    private static Set<Class<?>> set(Class<?>... classes) {
+        return new HashSet<Class<?>>(Arrays.asList(classes));
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Marker {
+    }
+
+    @Inherited
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface InheritedMarker {
+    }
+
+    @Retention(RetentionPolicy.CLASS)
+    @interface ClassRetained {
+    }
+
+    @Marker
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Stereotype {
+    }
+
+    @Marker
+    @InheritedMarker
+    static class Base {
+    }
+
+    static class Sub extends Base {
+    }
+
+    static class SubSub extends Sub {
+    }
+
+    @InheritedMarker
+    interface MarkedInterface {
+    }
+
+    static class Implementation implements MarkedInterface {
+    }
+
+    @Stereotype
+    static class Stereotyped {
+    }
+
+    static class StereotypedSub extends Stereotyped {
+    }
+
+    @ClassRetained
+    static class ClassRetainedType {
+    }
+
+    @RestController
+    static class RestResource {
+    }
+}
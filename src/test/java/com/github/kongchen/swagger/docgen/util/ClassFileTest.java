@@ -0,0 +1,198 @@
+package com.github.kongchen.swagger.docgen.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.util.Collections;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ClassFileTest {
+
+    @Test
+    public void testReadCompiledClass() throws Exception {
+        ClassFile classFile = read(Constants.class);
+
+        Assert.assertEquals(classFile.getName(), Constants.class.getName());
+        Assert.assertEquals(classFile.getSuperName(), Number.class.getName());
+        Assert.assertEquals(classFile.getInterfaces(), Collections.singletonList(Serializable.class.getName()));
+        Assert.assertFalse(classFile.isInterface());
+        // the annotation retained in the class file only is left out
+        Assert.assertEquals(classFile.getAnnotations(), Collections.singletonList(Visible.class.getName()));
+    }
+
+    @Test
+    public void testReadInterface() throws Exception {
+        ClassFile classFile = read(VisibleInterface.class);
+
+        Assert.assertEquals(classFile.getName(), VisibleInterface.class.getName());
+        Assert.assertEquals(classFile.getSuperName(), Object.class.getName());
+        Assert.assertTrue(classFile.isInterface());
+        Assert.assertEquals(classFile.getAnnotations(), Collections.singletonList(Visible.class.getName()));
+    }
+
+    @Test
+    public void testReadEveryConstantKind() throws Exception {
+        ClassFile classFile = ClassFile.read(new ByteArrayInputStream(createClassFile("com/example/Missing", Visible.class)));
+
+        Assert.assertEquals(classFile.getName(), "com.example.Missing");
+        Assert.assertEquals(classFile.getSuperName(), Object.class.getName());
+        Assert.assertTrue(classFile.getInterfaces().isEmpty());
+        Assert.assertEquals(classFile.getAnnotations(), Collections.singletonList(Visible.class.getName()));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testUnknownConstantPoolTag() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(50);
+        out.writeShort(2);
+        out.writeByte(2); // unused tag
+        out.close();
+
+        ClassFile.read(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    @Test(expectedExceptions = IOException.class)
+    public void testNotAClassFile() throws Exception {
+        ClassFile.read(new ByteArrayInputStream("not a class".getBytes("UTF-8")));
+    }
+
+    private static ClassFile read(Class<?> cls) throws IOException {
+        InputStream in = cls.getResourceAsStream(cls.getName().substring(cls.getName().lastIndexOf('.') + 1) + ".class");
+        try {
+            return ClassFile.read(in);
+        } finally {
+            in.close();
+        }
+    }
+
+    /**
+     * Creates a class file for a class which is not on the classpath, holding a constant of every kind
+     * of the constant pool, including those the Java 6 compiler never emits, in front of its annotation.
+     */
+    static byte[] createClassFile(String name, Class<?> annotation) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(0xCAFEBABE);
+        out.writeShort(0);
+        out.writeShort(50);
+
+        out.writeShort(24); // last index + 1
+        out.writeByte(1); // #1 Utf8
+        out.writeUTF(name);
+        out.writeByte(7); // #2 Class
+        out.writeShort(1);
+        out.writeByte(1); // #3 Utf8
+        out.writeUTF("java/lang/Object");
+        out.writeByte(7); // #4 Class
+        out.writeShort(3);
+        out.writeByte(5); // #5 Long, taking two entries
+        out.writeLong(Long.MAX_VALUE);
+        out.writeByte(6); // #7 Double, taking two entries
+        out.writeDouble(Math.PI);
+        out.writeByte(3); // #9 Integer
+        out.writeInt(42);
+        out.writeByte(4); // #10 Float
+        out.writeFloat(1.5f);
+        out.writeByte(8); // #11 String
+        out.writeShort(3);
+        out.writeByte(12); // #12 NameAndType
+        out.writeShort(3);
+        out.writeShort(3);
+        out.writeByte(9); // #13 Fieldref
+        out.writeShort(4);
+        out.writeShort(12);
+        out.writeByte(10); // #14 Methodref
+        out.writeShort(4);
+        out.writeShort(12);
+        out.writeByte(11); // #15 InterfaceMethodref
+        out.writeShort(4);
+        out.writeShort(12);
+        out.writeByte(15); // #16 MethodHandle
+        out.writeByte(6);
+        out.writeShort(14);
+        out.writeByte(16); // #17 MethodType
+        out.writeShort(3);
+        out.writeByte(17); // #18 Dynamic
+        out.writeShort(0);
+        out.writeShort(12);
+        out.writeByte(18); // #19 InvokeDynamic
+        out.writeShort(0);
+        out.writeShort(12);
+        out.writeByte(19); // #20 Module
+        out.writeShort(3);
+        out.writeByte(20); // #21 Package
+        out.writeShort(3);
+        out.writeByte(1); // #22 Utf8
+        out.writeUTF("RuntimeVisibleAnnotations");
+        // read only if the entries in front of it, and the two-entry ones in particular, are skipped right
+        out.writeByte(1); // #23 Utf8
+        out.writeUTF("L" + annotation.getName().replace('.', '/') + ";");
+
+        out.writeShort(0x0021); // public super
+        out.writeShort(2);
+        out.writeShort(4);
+        out.writeShort(0); // interfaces
+        out.writeShort(0); // fields
+        out.writeShort(0); // methods
+        out.writeShort(1); // attributes
+        out.writeShort(22);
+        out.writeInt(6);
+        out.writeShort(1);
+        out.writeShort(23);
+        out.writeShort(0);
+        out.close();
+        return bytes.toByteArray();
+    }
+
+    @Retention(RetentionPolicy.RUNTIME)
+    @interface Visible {
+    }
+
+    @Retention(RetentionPolicy.CLASS)
+    @interface Invisible {
+    }
+
+    @Visible
+    @Invisible
+    @SuppressWarnings("serial")
+    static class Constants extends Number implements Serializable {
+        static final long LONG = Long.MAX_VALUE;
+        static final double DOUBLE = Math.PI;
+        static final float FLOAT = 1.5f;
+        static final String STRING = "constant";
+
+        @Override
+        public int intValue() {
+            return (int) LONG;
+        }
+
+        @Override
+        public long longValue() {
+            return LONG;
+        }
+
+        @Override
+        public float floatValue() {
+            return FLOAT;
+        }
+
+        @Override
+        public double doubleValue() {
+            return DOUBLE;
+        }
+    }
+
+    @Visible
+    interface VisibleInterface {
+    }
+}